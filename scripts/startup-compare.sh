@@ -0,0 +1,28 @@
+#!/usr/bin/env bash
+# Builds the three startup modes from the Dockerfile and measures, for each,
+# the time from `docker run` to the first successful request and the RSS of
+# the server process right after that request. Needs a running MongoDB
+# reachable as mongodb://mongo:27017 on the compose network (docker compose up -d mongo).
+set -euo pipefail
+
+NETWORK=${NETWORK:-$(basename "$PWD" | tr "[:upper:]" "[:lower:]")_spring_network}
+MONGO_URI=${MONGO_URI:-mongodb://mongo:27017/templatedb?replicaSet=rs0}
+RUNS=${RUNS:-5}
+MODES=${MODES:-"jvm cds native"}
+
+for mode in $MODES; do
+  docker build -q --target "$mode" -t "backend:$mode" . > /dev/null
+done
+
+printf '%-8s %-6s %12s %10s\n' mode run first_req_ms rss_mb
+for mode in $MODES; do
+  for run in $(seq 1 "$RUNS"); do
+    start=$(date +%s%N)
+    cid=$(docker run -d --network "$NETWORK" -e SPRING_DATA_MONGODB_URI="$MONGO_URI" -p 18080:8080 "backend:$mode")
+    until curl -sf -o /dev/null http://localhost:18080/health/live; do sleep 0.02; done
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+    rss_kb=$(docker exec "$cid" cat /proc/1/status | awk '/VmRSS/ {print $2}')
+    printf '%-8s %-6s %12s %10s\n' "$mode" "$run" "$elapsed" "$(( rss_kb / 1024 ))"
+    docker rm -f "$cid" > /dev/null
+  done
+done
@@ -1,7 +1,10 @@
 package com.template;
 
+import com.template.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 /**
  * Main Spring Boot application class.
@@ -11,15 +14,24 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @version 1.0.0
  */
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class Application {
 
+    /**
+     * Startup steps kept for the timeline report and {@code /actuator/startup};
+     * a full context refresh records a few thousand.
+     */
+    private static final int STARTUP_STEP_CAPACITY = 10000;
+
     /**
      * Main method to start the Spring Boot application.
      *
      * @param args command line arguments
      */
     public static void main(String[] args) {
-        SpringApplication.run(Application.class, args);
+        SpringApplication application = new SpringApplication(Application.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+        application.run(args);
     }
 
 }
@@ -1,35 +1,54 @@
 package com.template.config;
 
-import com.template.repository.UserRepository;
+import com.template.security.CalibratedBCryptPasswordEncoder;
+import com.template.security.RehashingAuthenticationProvider;
+import com.template.entity.User;
+import com.template.service.LoginActivityTracker;
+import com.template.service.PasswordRehashService;
+import com.template.service.UserLookupBatcher;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.LocalDateTime;
+import java.util.Map;
+
 @Configuration
 @RequiredArgsConstructor
 public class ApplicationConfig {
 
-    private final UserRepository userRepository;
+    private final UserLookupBatcher userLookupBatcher;
+    private final LoginActivityTracker loginActivityTracker;
 
     @Bean
     public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByEmailAndActive(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        return username -> {
+            User user = userLookupBatcher.findByEmailAndActive(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+            // A lock taken on this instance may not have been flushed to the stored user yet
+            LocalDateTime lockedUntil = loginActivityTracker.lockedUntil(username);
+            if (lockedUntil != null && (user.getLockedUntil() == null || lockedUntil.isAfter(user.getLockedUntil()))) {
+                user.setLockedUntil(lockedUntil);
+            }
+            return user;
+        };
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder,
+                                                         PasswordRehashService passwordRehashService) {
+        RehashingAuthenticationProvider authProvider = new RehashingAuthenticationProvider(passwordRehashService);
         authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -38,8 +57,22 @@ public class ApplicationConfig {
         return config.getAuthenticationManager();
     }
 
+    /**
+     * Hashes are stored with an {@code {id}} prefix so the algorithm or its
+     * parameters can change without invalidating existing passwords; hashes
+     * from before the prefix are plain BCrypt and are upgraded on next login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${password.hash.strength:0}") int strength,
+            @Value("${password.hash.target-millis:250}") long targetMillis,
+            @Value("${password.hash.min-strength:10}") int minStrength,
+            @Value("${password.hash.max-strength:14}") int maxStrength) {
+        int bcryptStrength = strength > 0 ? strength
+                : CalibratedBCryptPasswordEncoder.calibrate(targetMillis, minStrength, maxStrength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new CalibratedBCryptPasswordEncoder(bcryptStrength)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
     }
 }
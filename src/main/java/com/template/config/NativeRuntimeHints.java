@@ -0,0 +1,106 @@
+package com.template.config;
+
+import com.template.dto.ApiResponse;
+import com.template.dto.BatchRequest;
+import com.template.dto.BatchResponse;
+import com.template.dto.CategoryStatsDTO;
+import com.template.dto.LoginRequest;
+import com.template.dto.LoginResponse;
+import com.template.dto.MigrationStatusDTO;
+import com.template.dto.MultiOperationRequest;
+import com.template.dto.MultiOperationResponse;
+import com.template.dto.ProductBrowseRequest;
+import com.template.dto.ProductDTO;
+import com.template.dto.ProductFacetsDTO;
+import com.template.dto.ProductQueryResponse;
+import com.template.dto.ProductSearchResponse;
+import com.template.dto.ProductSuggestionDTO;
+import com.template.dto.SlowQueryDTO;
+import com.template.dto.UserDTO;
+import com.template.entity.BaseEntity;
+import com.template.entity.CategoryStats;
+import com.template.entity.ChangeStreamCheckpoint;
+import com.template.entity.MigrationState;
+import com.template.entity.OutboxEvent;
+import com.template.entity.OutboxSequence;
+import com.template.entity.Product;
+import com.template.entity.RevokedToken;
+import com.template.entity.User;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reflection hints for the native image build ({@code -Pnative}).
+ *
+ * <p>AOT only infers binding hints for types that appear directly in
+ * controller signatures; ours are wrapped in {@code ApiResponse<?>} and built
+ * through Lombok builders, so the DTOs are registered explicitly. Entities read
+ * through {@code MongoTemplate} rather than a repository are not seen by
+ * Spring Data's AOT pass either. JJWT locates its implementation classes by
+ * name and its Jackson (de)serializer through {@code ServiceLoader}.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> DTOS = List.of(
+            ApiResponse.class, BatchRequest.class, BatchResponse.class, CategoryStatsDTO.class,
+            LoginRequest.class, LoginResponse.class, MigrationStatusDTO.class, MultiOperationRequest.class,
+            MultiOperationRequest.Operation.class, MultiOperationResponse.class, MultiOperationResponse.Result.class,
+            ProductBrowseRequest.class, ProductDTO.class, ProductFacetsDTO.class, ProductFacetsDTO.PriceBucket.class,
+            ProductQueryResponse.class, ProductSearchResponse.class, ProductSuggestionDTO.class, SlowQueryDTO.class,
+            UserDTO.class);
+
+    private static final List<Class<?>> ENTITIES = List.of(
+            BaseEntity.class, CategoryStats.class, ChangeStreamCheckpoint.class, MigrationState.class,
+            OutboxEvent.class, OutboxSequence.class, Product.class, RevokedToken.class, User.class);
+
+    private static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+        bindings.registerReflectionHints(hints.reflection(), DTOS.toArray(Class<?>[]::new));
+        bindings.registerReflectionHints(hints.reflection(), ENTITIES.toArray(Class<?>[]::new));
+
+        // The Mongo mapping layer reads and writes fields directly.
+        for (Class<?> entity : ENTITIES) {
+            hints.reflection().registerType(entity,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+
+        for (String type : JJWT_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+    }
+}
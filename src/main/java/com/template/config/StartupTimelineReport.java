@@ -0,0 +1,116 @@
+package com.template.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Logs a summary of the startup timeline once the application is ready:
+ * time-to-ready, resident memory and the slowest bean initializations.
+ * The full timeline stays available at {@code /actuator/startup}.
+ */
+@Component
+@Slf4j
+public class StartupTimelineReport {
+
+    private static final String BEAN_INSTANTIATE_STEP = "spring.beans.instantiate";
+
+    @Value("${startup.report.enabled:true}")
+    private boolean enabled;
+
+    @Value("${startup.report.top-n:15}")
+    private int topN;
+
+    @Value("${startup.exit-after-ready:false}")
+    private boolean exitAfterReady;
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        if (enabled) {
+            report(event);
+        }
+        if (exitAfterReady) {
+            log.info("startup.exit-after-ready is set; shutting down");
+            ConfigurableApplicationContext context = event.getApplicationContext();
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    private void report(ApplicationReadyEvent event) {
+        long uptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Startup: ready after {} ms (context {} ms), RSS {} kB",
+                uptimeMillis, event.getTimeTaken() == null ? -1 : event.getTimeTaken().toMillis(), residentSetKb());
+
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            log.info("Startup: no buffered timeline recorded; bean timings unavailable");
+            return;
+        }
+        List<StartupTimeline.TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+
+        // Instantiation steps nest (a bean's dependencies are created inside it), so
+        // rank by self time to point at the bean that is actually slow.
+        Map<Long, Duration> childTime = new HashMap<>();
+        for (StartupTimeline.TimelineEvent timelineEvent : events) {
+            StartupStep step = timelineEvent.getStartupStep();
+            if (BEAN_INSTANTIATE_STEP.equals(step.getName()) && step.getParentId() != null) {
+                childTime.merge(step.getParentId(), timelineEvent.getDuration(), Duration::plus);
+            }
+        }
+
+        List<BeanTiming> timings = events.stream()
+                .filter(e -> BEAN_INSTANTIATE_STEP.equals(e.getStartupStep().getName()))
+                .map(e -> new BeanTiming(beanName(e.getStartupStep()), e.getDuration(),
+                        e.getDuration().minus(childTime.getOrDefault(e.getStartupStep().getId(), Duration.ZERO))))
+                .sorted(Comparator.comparing(BeanTiming::self).reversed())
+                .limit(topN)
+                .toList();
+
+        log.info("Startup: {} steps recorded, {} bean instantiations; slowest by self time:",
+                events.size(), events.stream().filter(e -> BEAN_INSTANTIATE_STEP.equals(e.getStartupStep().getName())).count());
+        for (BeanTiming timing : timings) {
+            log.info("  {} ms self / {} ms total  {}", timing.self().toMillis(), timing.total().toMillis(), timing.beanName());
+        }
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "<unnamed>";
+    }
+
+    private static long residentSetKb() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D+", ""));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not on Linux; RSS is reported as unknown.
+        }
+        return -1;
+    }
+
+    private record BeanTiming(String beanName, Duration total, Duration self) {
+    }
+}
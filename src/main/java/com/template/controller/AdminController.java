@@ -0,0 +1,96 @@
+package com.template.controller;
+
+import com.template.dto.ApiResponse;
+import com.template.dto.BatchRequest;
+import com.template.dto.BatchResponse;
+import com.template.dto.MigrationStatusDTO;
+import com.template.dto.SlowQueryDTO;
+import com.template.dto.UserDTO;
+import com.template.service.CatalogSnapshotService;
+import com.template.service.MigrationRunner;
+import com.template.service.SlowQueryMonitor;
+import com.template.service.TokenRevocationService;
+import com.template.service.UserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin")
+@PreAuthorize("hasAnyRole('ADMIN')")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminController {
+
+    private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final SlowQueryMonitor slowQueryMonitor;
+    private final MigrationRunner migrationRunner;
+
+    @GetMapping("/users/batch")
+    public ResponseEntity<ApiResponse<?>> getUsersByIds(
+            @RequestParam List<String> ids) {
+        log.info("Fetching {} users by id", ids.size());
+        BatchResponse<UserDTO> users = userService.getUsersByIds(ids);
+        ApiResponse<?> response = new ApiResponse<>(true, "Users retrieved successfully", users);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/users/batch")
+    public ResponseEntity<ApiResponse<?>> getUsersByIdList(
+            @Valid @RequestBody BatchRequest batchRequest) {
+        log.info("Fetching {} users by id", batchRequest.getIds().size());
+        BatchResponse<UserDTO> users = userService.getUsersByIds(batchRequest.getIds());
+        ApiResponse<?> response = new ApiResponse<>(true, "Users retrieved successfully", users);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/users/{id}/revoke-tokens")
+    public ResponseEntity<ApiResponse<?>> revokeAllTokensForUser(
+            @PathVariable String id) {
+        log.info("Revoking all tokens for user with id: {}", id);
+        UserDTO user = userService.getUserById(id);
+        tokenRevocationService.revokeAllForUser(user.getEmail());
+        ApiResponse<?> response = new ApiResponse<>(true, "All tokens revoked for user");
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/catalog-snapshot")
+    public ResponseEntity<ApiResponse<?>> getCatalogSnapshotStats() {
+        log.info("Fetching catalog snapshot statistics");
+        ApiResponse<?> response = new ApiResponse<>(true, "Catalog snapshot statistics retrieved successfully",
+                catalogSnapshotService.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/slow-queries")
+    public ResponseEntity<ApiResponse<?>> getSlowQueries(
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("Fetching top {} slow query shapes", limit);
+        List<SlowQueryDTO> slowQueries = slowQueryMonitor.getSlowQueries(limit);
+        ApiResponse<?> response = new ApiResponse<>(true, "Slow queries retrieved successfully", slowQueries);
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/slow-queries")
+    public ResponseEntity<ApiResponse<?>> resetSlowQueries() {
+        log.info("Resetting slow query statistics");
+        slowQueryMonitor.reset();
+        ApiResponse<?> response = new ApiResponse<>(true, "Slow query statistics reset");
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/migrations")
+    public ResponseEntity<ApiResponse<?>> getMigrations() {
+        log.info("Fetching migration progress");
+        List<MigrationStatusDTO> migrations = migrationRunner.getStatus();
+        ApiResponse<?> response = new ApiResponse<>(true, "Migration progress retrieved successfully", migrations);
+        return ResponseEntity.ok(response);
+    }
+}
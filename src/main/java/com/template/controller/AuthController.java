@@ -6,15 +6,20 @@ import com.template.dto.LoginResponse;
 import com.template.entity.User;
 import com.template.repository.UserRepository;
 import com.template.service.JwtService;
+import com.template.service.LoginActivityTracker;
+import com.template.service.TokenRevocationService;
+import com.template.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -26,7 +31,9 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginActivityTracker loginActivityTracker;
 
     @PostMapping("/login")
     public ResponseEntity<ApiResponse<?>> login(
@@ -53,10 +60,14 @@ public class AuthController {
                     .role(user.getRole().toString())
                     .build();
 
+            loginActivityTracker.recordSuccess(loginRequest.getEmail());
             log.info("User logged in successfully: {}", loginRequest.getEmail());
             ApiResponse<?> response = new ApiResponse<>(true, "Login successful", loginResponse);
             return ResponseEntity.ok(response);
         } catch (AuthenticationException e) {
+            if (e instanceof BadCredentialsException) {
+                loginActivityTracker.recordFailure(loginRequest.getEmail());
+            }
             log.error("Authentication failed for user: {}", loginRequest.getEmail());
             ApiResponse<?> response = new ApiResponse<>(false, "Invalid email or password");
             return ResponseEntity.badRequest().body(response);
@@ -74,17 +85,33 @@ public class AuthController {
             return ResponseEntity.badRequest().body(response);
         }
 
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        user.setRole(User.Role.USER);
-        user.setIsActive(true);
-        
-        User savedUser = userRepository.save(user);
+        userService.registerUser(user);
         log.info("User registered successfully: {}", user.getEmail());
         
         ApiResponse<?> response = new ApiResponse<>(true, "Registration successful");
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<?>> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            ApiResponse<?> response = new ApiResponse<>(false, "Missing bearer token");
+            return ResponseEntity.badRequest().body(response);
+        }
+        try {
+            Claims claims = jwtService.extractAllClaims(authHeader.substring(7));
+            tokenRevocationService.revokeToken(claims);
+            log.info("User logged out: {}", claims.getSubject());
+            ApiResponse<?> response = new ApiResponse<>(true, "Logout successful");
+            return ResponseEntity.ok(response);
+        } catch (JwtException e) {
+            log.warn("Logout with invalid token: {}", e.getMessage());
+            ApiResponse<?> response = new ApiResponse<>(false, "Invalid token");
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     @GetMapping("/validate")
     public ResponseEntity<ApiResponse<?>> validateToken() {
         log.info("Token validation endpoint called");
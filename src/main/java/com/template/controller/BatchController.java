@@ -0,0 +1,36 @@
+package com.template.controller;
+
+import com.template.dto.ApiResponse;
+import com.template.dto.MultiOperationRequest;
+import com.template.dto.MultiOperationResponse;
+import com.template.service.MultiOperationService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/batch")
+@RequiredArgsConstructor
+@Slf4j
+public class BatchController {
+
+    private final MultiOperationService multiOperationService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<?>> execute(
+            @Valid @RequestBody MultiOperationRequest request,
+            HttpServletRequest servletRequest,
+            HttpServletResponse servletResponse) {
+        log.info("Executing batch of {} operations", request.getOperations().size());
+        MultiOperationResponse results = multiOperationService.execute(request, servletRequest, servletResponse);
+        ApiResponse<?> response = new ApiResponse<>(true, "Batch executed", results);
+        return ResponseEntity.ok(response);
+    }
+}
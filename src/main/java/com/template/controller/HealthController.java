@@ -1,7 +1,10 @@
 package com.template.controller;
 
 import com.template.dto.ApiResponse;
+import com.template.service.WarmupService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -12,9 +15,12 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/health")
+@RequiredArgsConstructor
 @Slf4j
 public class HealthController {
 
+    private final WarmupService warmupService;
+
     @GetMapping
     public ResponseEntity<ApiResponse<?>> health() {
         log.info("Health check endpoint called");
@@ -40,7 +46,14 @@ public class HealthController {
     public ResponseEntity<ApiResponse<?>> ready() {
         log.info("Readiness check endpoint called");
         Map<String, String> readyData = new HashMap<>();
+        if (!warmupService.isComplete()) {
+            readyData.put("status", "WARMING_UP");
+            readyData.put("warmupElapsedMillis", String.valueOf(warmupService.getElapsedMillis()));
+            ApiResponse<?> response = new ApiResponse<>(false, "Application is warming up", readyData);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
         readyData.put("status", "READY");
+        readyData.put("warmupMillis", String.valueOf(warmupService.getElapsedMillis()));
         readyData.put("database", "Connected");
         
         ApiResponse<?> response = new ApiResponse<>(true, "Application is ready to accept requests", readyData);
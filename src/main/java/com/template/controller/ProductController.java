@@ -1,8 +1,20 @@
 package com.template.controller;
 
 import com.template.dto.ApiResponse;
+import com.template.dto.BatchRequest;
+import com.template.dto.BatchResponse;
+import com.template.dto.CategoryStatsDTO;
+import com.template.dto.ProductBrowseRequest;
 import com.template.dto.ProductDTO;
+import com.template.dto.ProductQueryResponse;
+import com.template.dto.ProductSuggestionDTO;
+import com.template.service.CatalogSnapshotService;
+import com.template.service.CategoryStatsService;
+import com.template.service.ProductFacetService.FacetQuery;
+import com.template.service.ProductRawReadService;
 import com.template.service.ProductService;
+import com.template.service.ProductSuggestService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +26,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+
 @RestController
 @RequestMapping("/products")
 @RequiredArgsConstructor
@@ -21,6 +37,10 @@ import org.springframework.web.bind.annotation.*;
 public class ProductController {
 
     private final ProductService productService;
+    private final CategoryStatsService categoryStatsService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ProductRawReadService productRawReadService;
+    private final ProductSuggestService productSuggestService;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN')")
@@ -32,10 +52,50 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @GetMapping("/batch")
+    public ResponseEntity<ApiResponse<?>> getProductsByIds(
+            @RequestParam List<String> ids) {
+        log.info("Fetching {} products by id", ids.size());
+        BatchResponse<ProductDTO> products = productService.getProductsByIds(ids);
+        ApiResponse<?> response = new ApiResponse<>(true, "Products retrieved successfully", products);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<?>> getProductsByIdList(
+            @Valid @RequestBody BatchRequest batchRequest) {
+        log.info("Fetching {} products by id", batchRequest.getIds().size());
+        BatchResponse<ProductDTO> products = productService.getProductsByIds(batchRequest.getIds());
+        ApiResponse<?> response = new ApiResponse<>(true, "Products retrieved successfully", products);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<?>> getCategoryStats() {
+        log.info("Fetching statistics for all categories");
+        List<CategoryStatsDTO> stats = categoryStatsService.getAllStats();
+        ApiResponse<?> response = new ApiResponse<>(true, "Category statistics retrieved successfully", stats);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/stats/{category}")
+    public ResponseEntity<ApiResponse<?>> getCategoryStats(
+            @PathVariable String category) {
+        log.info("Fetching statistics for category: {}", category);
+        CategoryStatsDTO stats = categoryStatsService.getStats(category);
+        ApiResponse<?> response = new ApiResponse<>(true, "Category statistics retrieved successfully", stats);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<?>> getProductById(
-            @PathVariable String id) {
+            @PathVariable String id,
+            HttpServletResponse servletResponse) throws IOException {
         log.info("Fetching product with id: {}", id);
+        if (productRawReadService.isEnabled()) {
+            productRawReadService.writeProductById(id, "Product retrieved successfully", servletResponse);
+            return null;
+        }
         ProductDTO product = productService.getProductById(id);
         ApiResponse<?> response = new ApiResponse<>(true, "Product retrieved successfully", product);
         return ResponseEntity.ok(response);
@@ -44,9 +104,20 @@ public class ProductController {
     @GetMapping
     public ResponseEntity<ApiResponse<?>> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean facets,
+            HttpServletResponse servletResponse) throws IOException {
         log.info("Fetching all products - page: {}, size: {}", page, size);
         Pageable pageable = PageRequest.of(page, size);
+        if (facets) {
+            ApiResponse<?> response = new ApiResponse<>(true, "Products retrieved successfully",
+                    productService.getProductsWithFacets(FacetQuery.all(), pageable));
+            return ResponseEntity.ok(response);
+        }
+        if (productRawReadService.isEnabled()) {
+            productRawReadService.writeAllProducts(pageable, "Products retrieved successfully", servletResponse);
+            return null;
+        }
         Page<ProductDTO> products = productService.getAllProducts(pageable);
         ApiResponse<?> response = new ApiResponse<>(true, "Products retrieved successfully", products);
         return ResponseEntity.ok(response);
@@ -56,32 +127,122 @@ public class ProductController {
     public ResponseEntity<ApiResponse<?>> searchProducts(
             @RequestParam String name,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean facets,
+            HttpServletResponse servletResponse) throws IOException {
         log.info("Searching products by name: {}", name);
         Pageable pageable = PageRequest.of(page, size);
+        if (facets) {
+            ApiResponse<?> response = new ApiResponse<>(true, "Search completed successfully",
+                    productService.getProductsWithFacets(FacetQuery.nameMatching(name), pageable));
+            return ResponseEntity.ok(response);
+        }
+        if (productRawReadService.isEnabled()) {
+            productRawReadService.writeProductsByName(name, pageable, "Search completed successfully", servletResponse);
+            return null;
+        }
         Page<ProductDTO> products = productService.searchProductsByName(name, pageable);
         ApiResponse<?> response = new ApiResponse<>(true, "Search completed successfully", products);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<?>> suggestProducts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        // Called on every keystroke; kept at debug
+        log.debug("Suggesting products for prefix: {}", prefix);
+        List<ProductSuggestionDTO> suggestions = productSuggestService.suggest(prefix, limit);
+        ApiResponse<?> response = new ApiResponse<>(true, "Suggestions retrieved successfully", suggestions);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/category/{category}")
     public ResponseEntity<ApiResponse<?>> getProductsByCategory(
             @PathVariable String category,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean facets,
+            HttpServletResponse servletResponse) throws IOException {
         log.info("Fetching products by category: {}", category);
         Pageable pageable = PageRequest.of(page, size);
+        if (facets) {
+            ApiResponse<?> response = new ApiResponse<>(true, "Products retrieved successfully",
+                    productService.getProductsWithFacets(FacetQuery.category(category), pageable));
+            return ResponseEntity.ok(response);
+        }
+        if (productRawReadService.isEnabled()) {
+            productRawReadService.writeProductsByCategory(category, pageable, "Products retrieved successfully",
+                    servletResponse);
+            return null;
+        }
         Page<ProductDTO> products = productService.getProductsByCategory(category, pageable);
         ApiResponse<?> response = new ApiResponse<>(true, "Products retrieved successfully", products);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/browse")
+    public ResponseEntity<ApiResponse<?>> browseProducts(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "RECENT") ProductBrowseRequest.SortBy sortBy,
+            @RequestParam(defaultValue = "true") boolean descending,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        log.info("Browsing products - category: {}, inStock: {}, price: {}..{}", category, inStock, minPrice, maxPrice);
+        ProductBrowseRequest browseRequest = ProductBrowseRequest.builder()
+                .category(category)
+                .inStock(inStock)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .sortBy(sortBy)
+                .descending(descending)
+                .build();
+        Pageable pageable = PageRequest.of(page, size);
+        Page<ProductDTO> products = catalogSnapshotService.isReady()
+                ? catalogSnapshotService.browse(browseRequest, pageable)
+                : productService.browseProducts(browseRequest, pageable);
+        ApiResponse<?> response = new ApiResponse<>(true, "Products retrieved successfully", products);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/query")
+    public ResponseEntity<ApiResponse<?>> queryProducts(
+            @RequestParam(required = false) List<String> filter,
+            @RequestParam(required = false) List<String> sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        log.info("Querying products - filter: {}, sort: {}", filter, sort);
+        if (size < 1 || size > 100) {
+            ApiResponse<?> response = new ApiResponse<>(false, "Page size must be between 1 and 100");
+            return ResponseEntity.badRequest().body(response);
+        }
+        Pageable pageable = PageRequest.of(page, size);
+        ProductQueryResponse products = productService.queryProducts(filter, sort, pageable);
+        ApiResponse<?> response = new ApiResponse<>(true, "Products retrieved successfully", products);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/in-stock")
     public ResponseEntity<ApiResponse<?>> getInStockProducts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean facets,
+            HttpServletResponse servletResponse) throws IOException {
         log.info("Fetching in-stock products");
         Pageable pageable = PageRequest.of(page, size);
+        if (facets) {
+            ApiResponse<?> response = new ApiResponse<>(true, "In-stock products retrieved successfully",
+                    productService.getProductsWithFacets(FacetQuery.inStock(), pageable));
+            return ResponseEntity.ok(response);
+        }
+        if (productRawReadService.isEnabled()) {
+            productRawReadService.writeInStockProducts(pageable, "In-stock products retrieved successfully",
+                    servletResponse);
+            return null;
+        }
         Page<ProductDTO> products = productService.getInStockProducts(pageable);
         ApiResponse<?> response = new ApiResponse<>(true, "In-stock products retrieved successfully", products);
         return ResponseEntity.ok(response);
@@ -0,0 +1,20 @@
+package com.template.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchResponse<T> {
+
+    private List<T> items;
+    private List<String> missingIds;
+    private int requested;
+    private int found;
+}
@@ -0,0 +1,25 @@
+package com.template.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryStatsDTO {
+
+    private String category;
+    private Integer productCount;
+    private Long totalStock;
+    private BigDecimal inventoryValue;
+    private BigDecimal minPrice;
+    private BigDecimal avgPrice;
+    private BigDecimal maxPrice;
+    private Instant computedAt;
+}
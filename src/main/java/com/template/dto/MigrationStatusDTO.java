@@ -0,0 +1,33 @@
+package com.template.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MigrationStatusDTO {
+
+    private Integer version;
+    private String description;
+    private String collection;
+    private String status;
+    private String lastId;
+    private Long scanned;
+    private Long modified;
+    private Integer batches;
+    // scanned / estimated collection size; approximate while the collection grows
+    private Double percentComplete;
+    // Current throttle; only set on the migration running on this instance
+    private Double docsPerSecond;
+    private String runningOn;
+    private String lastError;
+    private Instant startedAt;
+    private Instant updatedAt;
+    private Instant completedAt;
+}
@@ -0,0 +1,43 @@
+package com.template.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MultiOperationRequest {
+
+    @NotEmpty(message = "At least one operation is required")
+    @Valid
+    private List<Operation> operations;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Operation {
+
+        // Echoed back so clients can match results without relying on order
+        private String id;
+
+        @NotBlank(message = "Method is required")
+        private String method;
+
+        @NotBlank(message = "Path is required")
+        private String path;
+
+        private Map<String, String> headers;
+        private JsonNode body;
+    }
+}
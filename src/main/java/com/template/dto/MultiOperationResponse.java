@@ -0,0 +1,31 @@
+package com.template.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MultiOperationResponse {
+
+    private List<Result> results;
+    private Long elapsedMillis;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Result {
+
+        private String id;
+        private Integer status;
+        private JsonNode body;
+        private Long elapsedMillis;
+    }
+}
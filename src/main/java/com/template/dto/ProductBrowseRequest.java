@@ -0,0 +1,28 @@
+package com.template.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBrowseRequest {
+
+    private String category;
+    private Boolean inStock;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    @Builder.Default
+    private SortBy sortBy = SortBy.RECENT;
+    @Builder.Default
+    private boolean descending = true;
+
+    public enum SortBy {
+        PRICE, RECENT
+    }
+}
@@ -1,5 +1,6 @@
 package com.template.dto;
 
+import jakarta.validation.constraints.Digits;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,6 +18,8 @@ public class ProductDTO {
     private String id;
     private String name;
     private String description;
+    // Stored as Decimal128 (34 significant digits) and read into the catalog snapshot as a fixed-point long
+    @Digits(integer = 14, fraction = 4, message = "Price must have at most 14 digits before and 4 after the decimal point")
     private BigDecimal price;
     private Integer quantity;
     private String category;
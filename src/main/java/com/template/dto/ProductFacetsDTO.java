@@ -0,0 +1,34 @@
+package com.template.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductFacetsDTO {
+
+    private long total;
+    private Map<String, Long> categories;
+    private long inStock;
+    private long outOfStock;
+    private List<PriceBucket> priceBuckets;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PriceBucket {
+
+        private BigDecimal min;
+        private BigDecimal max;
+        private long count;
+    }
+}
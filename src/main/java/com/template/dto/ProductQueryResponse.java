@@ -0,0 +1,19 @@
+package com.template.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductQueryResponse {
+
+    private Page<ProductDTO> products;
+    private String queryShape;
+    private String index;
+    private boolean indexed;
+}
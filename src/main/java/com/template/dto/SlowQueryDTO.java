@@ -0,0 +1,35 @@
+package com.template.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlowQueryDTO {
+
+    private String database;
+    private String collection;
+    private String command;
+    private String shape;
+    private Long count;
+    private Double totalMillis;
+    private Double avgMillis;
+    private Double maxMillis;
+    private Instant lastSeenAt;
+
+    // From the last explain("executionStats") of this shape; null until one has run
+    private Long docsExamined;
+    private Long keysExamined;
+    private Long nReturned;
+    private Double docsExaminedPerReturned;
+    private String winningPlan;
+    private Boolean collectionScan;
+    private Instant explainedAt;
+    private String explainError;
+}
@@ -0,0 +1,34 @@
+package com.template.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Materialized per-category statistics, written by the aggregation pipeline
+ * in {@code CategoryStatsService} through {@code $merge}.
+ */
+@Document(collection = "category_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryStats {
+
+    @Id
+    private String category;
+    private Integer productCount;
+    private Long totalStock;
+    private BigDecimal inventoryValue;
+    private BigDecimal minPrice;
+    private BigDecimal avgPrice;
+    private BigDecimal maxPrice;
+    private Instant computedAt;
+    private Boolean dirty;
+}
@@ -0,0 +1,37 @@
+package com.template.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Where one instance's cache invalidation left off for one collection: the
+ * last change stream resume token, or the last {@code (updatedAt, _id)} seen
+ * while polling. Each instance keeps its own checkpoint, so replicas never
+ * resume from each other's position; checkpoints of instances that are gone
+ * expire.
+ */
+@Document(collection = "change_stream_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeStreamCheckpoint {
+
+    @Id
+    private String id;
+    private String collection;
+    private String instanceId;
+    private String resumeToken;
+    private Instant lastPolledAt;
+    private Object lastPolledId;
+
+    @Indexed(expireAfterSeconds = 7 * 24 * 3600)
+    private Instant updatedAt;
+}
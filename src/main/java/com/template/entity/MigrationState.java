@@ -0,0 +1,42 @@
+package com.template.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Progress of one migration, checkpointed after every batch: the last
+ * {@code _id} processed is where the runner resumes after a restart.
+ */
+@Document(collection = "migrations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MigrationState {
+
+    @Id
+    private Integer version;
+    private String description;
+    private String collection;
+    private Status status;
+    private Object lastId;
+    private long scanned;
+    private long modified;
+    private int batches;
+    private String lastError;
+    private Instant startedAt;
+    private Instant updatedAt;
+    private Instant completedAt;
+    // Lock fence of the instance that wrote this checkpoint; a lower fence may not overwrite it
+    private long fence;
+
+    public enum Status {
+        RUNNING, COMPLETED
+    }
+}
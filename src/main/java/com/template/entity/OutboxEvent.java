@@ -0,0 +1,52 @@
+package com.template.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A domain event written in the same transaction as the aggregate change it
+ * describes. {@code sequence} numbers the events of one aggregate in commit
+ * order (see {@link OutboxSequence}); {@code _id} is a client-generated
+ * ObjectId and only roughly follows time. Dispatched events expire through a
+ * TTL index.
+ */
+@Document(collection = "outbox_events")
+@CompoundIndex(name = "status_id", def = "{ 'status': 1, '_id': 1 }")
+@CompoundIndex(name = "aggregate_sequence", def = "{ 'aggregateType': 1, 'aggregateId': 1, 'sequence': 1 }")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    public static final String PRODUCT = "Product";
+    public static final String USER = "User";
+
+    @Id
+    private String id;
+    private String aggregateType;
+    private String aggregateId;
+    // 1, 2, ... per aggregate; 0 for events written before sequences existed
+    private long sequence;
+    private String eventType;
+    private Object payload;
+    private Status status;
+    private int attempts;
+    private String lastError;
+    private Instant createdAt;
+
+    @Indexed(expireAfterSeconds = 7 * 24 * 3600)
+    private Instant dispatchedAt;
+
+    public enum Status {
+        PENDING, DISPATCHED, PARKED
+    }
+}
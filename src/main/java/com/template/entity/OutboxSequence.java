@@ -0,0 +1,29 @@
+package com.template.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Per-aggregate outbox counters: the last sequence number handed to an event
+ * and the highest one the dispatcher has delivered or parked.
+ */
+@Document(collection = "outbox_sequences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxSequence {
+
+    @Id
+    private String id;
+    private long sequence;
+    private long dispatched;
+
+    public static String key(String aggregateType, String aggregateId) {
+        return aggregateType + ":" + aggregateId;
+    }
+}
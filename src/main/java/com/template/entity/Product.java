@@ -4,11 +4,22 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
 
 @Document(collection = "products")
+@CompoundIndexes({
+        @CompoundIndex(name = "active_category_price", def = "{ 'isActive': 1, 'category': 1, 'price': 1 }"),
+        @CompoundIndex(name = "active_category_created", def = "{ 'isActive': 1, 'category': 1, 'createdAt': -1 }"),
+        @CompoundIndex(name = "active_price", def = "{ 'isActive': 1, 'price': 1 }"),
+        @CompoundIndex(name = "active_created", def = "{ 'isActive': 1, 'createdAt': -1 }"),
+        @CompoundIndex(name = "active_quantity_price", def = "{ 'isActive': 1, 'quantity': 1, 'price': 1 }"),
+        @CompoundIndex(name = "active_sku", def = "{ 'isActive': 1, 'sku': 1 }"),
+        @CompoundIndex(name = "sku", def = "{ 'sku': 1 }")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,6 +28,7 @@ public class Product extends BaseEntity {
 
     private String name;
     private String description;
+    // Decimal128 in Mongo (see MongoConfig#customConversions)
     private BigDecimal price;
     private Integer quantity;
     private String category;
@@ -0,0 +1,39 @@
+package com.template.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A revoked token id ({@code jti}), or a per-user "revoke everything issued
+ * before" marker. Documents expire through a TTL index once the tokens they
+ * cover could no longer be valid anyway.
+ */
+@Document(collection = "revoked_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+
+    public static final String USER_PREFIX = "user:";
+
+    @Id
+    private String id;
+    private Type type;
+    private String subject;
+    private Instant revokedAt;
+
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expiresAt;
+
+    public enum Type {
+        TOKEN, ALL_FOR_USER
+    }
+}
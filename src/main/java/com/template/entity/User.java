@@ -1,14 +1,17 @@
 package com.template.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
@@ -16,9 +19,10 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@SuperBuilder
+@SuperBuilder(toBuilder = true)
 public class User extends BaseEntity implements UserDetails {
 
+    @Indexed
     private String email;
     private String password;
     private String firstName;
@@ -31,6 +35,20 @@ public class User extends BaseEntity implements UserDetails {
     private Role role = Role.USER;
     private Boolean emailVerified = false;
 
+    // Login activity, written behind by LoginActivityTracker; never bound from requests
+    @JsonIgnore
+    private LocalDateTime lastLoginAt;
+    @JsonIgnore
+    private LocalDateTime lastFailedLoginAt;
+    @JsonIgnore
+    private long loginCount;
+    @JsonIgnore
+    private long failedLoginCount;
+    @JsonIgnore
+    private int failedLoginAttempts;
+    @JsonIgnore
+    private LocalDateTime lockedUntil;
+
     public enum Role {
         USER, ADMIN, MODERATOR
     }
@@ -52,7 +70,7 @@ public class User extends BaseEntity implements UserDetails {
 
     @Override
     public boolean isAccountNonLocked() {
-        return true;
+        return lockedUntil == null || !lockedUntil.isAfter(LocalDateTime.now());
     }
 
     @Override
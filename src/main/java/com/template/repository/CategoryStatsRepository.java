@@ -0,0 +1,9 @@
+package com.template.repository;
+
+import com.template.entity.CategoryStats;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CategoryStatsRepository extends MongoRepository<CategoryStats, String> {
+}
@@ -4,6 +4,8 @@ import com.template.entity.User;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,6 +16,9 @@ public interface UserRepository extends BaseRepository<User> {
     @Query("{ 'email': ?0, 'isActive': true }")
     Optional<User> findByEmailAndActive(String email);
 
+    @Query("{ 'email': { $in: ?0 }, 'isActive': true }")
+    List<User> findAllByEmailInAndActive(Collection<String> emails);
+
     @Query("{ 'phoneNumber': ?0, 'isActive': true }")
     Optional<User> findByPhoneNumberAndActive(String phoneNumber);
 
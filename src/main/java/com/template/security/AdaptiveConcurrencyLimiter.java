@@ -0,0 +1,114 @@
+package com.template.security;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gradient-style adaptive concurrency limit (after Netflix's Gradient2).
+ * Latency samples are aggregated per time window; at the end of each window
+ * the limit is scaled by {@code tolerance * longRtt / shortRtt} (clamped to
+ * [0.5, 1]) plus a small queue allowance, then smoothed. When the backing
+ * store slows down the short-term RTT rises above the long-term baseline and
+ * the limit shrinks; when it recovers the limit grows back.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final long windowNanos;
+    private final double priorityHeadroom;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile double limit;
+    private volatile double longRttNanos;
+
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final LongAdder windowRttSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing,
+                                      double rttTolerance, long windowNanos, double priorityHeadroom) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.rttTolerance = rttTolerance;
+        this.windowNanos = windowNanos;
+        this.priorityHeadroom = priorityHeadroom;
+    }
+
+    /**
+     * Claims an in-flight slot. Priority callers may run past the adaptive
+     * limit up to {@code limit * priorityHeadroom} before being shed.
+     */
+    public boolean tryAcquire(boolean priority) {
+        int cap = (int) (priority ? limit * priorityHeadroom : limit);
+        while (true) {
+            int current = inFlight.get();
+            if (current >= cap) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    public void release(long startNanos) {
+        inFlight.decrementAndGet();
+        long now = System.nanoTime();
+        windowRttSum.add(now - startNanos);
+        windowSamples.increment();
+
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            closeWindow();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private void closeWindow() {
+        long samples = windowSamples.sumThenReset();
+        long rttSum = windowRttSum.sumThenReset();
+        int maxInFlight = windowMaxInFlight.getAndSet(0);
+        if (samples == 0) {
+            return;
+        }
+        double shortRtt = (double) rttSum / samples;
+        double longRtt = longRttNanos == 0 ? shortRtt : longRttNanos;
+        longRtt = longRtt * 0.95 + shortRtt * 0.05;
+        if (longRtt / shortRtt > 2) {
+            // Latency dropped sharply; let the baseline catch up instead of over-growing.
+            longRtt *= 0.95;
+        }
+        longRttNanos = longRtt;
+
+        double current = limit;
+        if (maxInFlight < current / 2) {
+            // Application-limited window: too little load to learn anything.
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+        double next = current * gradient + Math.sqrt(current);
+        next = current * (1 - smoothing) + next * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
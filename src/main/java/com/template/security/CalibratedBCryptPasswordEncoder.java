@@ -0,0 +1,78 @@
+package com.template.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt with a work factor chosen for the machine it runs on. A stored hash
+ * is reported for upgrade only when its cost is below the current one, so an
+ * instance that calibrated lower never rehashes to a weaker cost and instances
+ * that calibrate differently do not keep rehashing each other's output.
+ * Lowering the cost is an explicit change (pin {@code password.hash.strength});
+ * it applies to new hashes and leaves stronger stored ones as they are.
+ */
+@Slf4j
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern COST = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$");
+    private static final int PROBE_STRENGTH = 8;
+    private static final int PROBE_ROUNDS = 5;
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = COST.matcher(encodedPassword);
+        if (!matcher.find()) {
+            return true;
+        }
+        int cost = Integer.parseInt(matcher.group(1));
+        return cost < strength;
+    }
+
+    /**
+     * Picks the highest cost in {@code [minStrength, maxStrength]} whose hash
+     * time on this machine stays within {@code targetMillis}. Each step doubles
+     * the work, so the time is measured once at a cheap cost and extrapolated.
+     */
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(PROBE_STRENGTH);
+        probe.encode("calibration");
+        long[] samples = new long[PROBE_ROUNDS];
+        for (int i = 0; i < PROBE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        double probeMillis = samples[PROBE_ROUNDS / 2] / 1_000_000.0;
+
+        int strength = minStrength;
+        while (strength < maxStrength && estimate(probeMillis, strength + 1) <= targetMillis) {
+            strength++;
+        }
+        log.info("Password hash cost calibrated to {} (~{} ms per hash, target {} ms)",
+                strength, Math.round(estimate(probeMillis, strength)), targetMillis);
+        return strength;
+    }
+
+    private static double estimate(double probeMillis, int strength) {
+        return probeMillis * Math.pow(2, strength - PROBE_STRENGTH);
+    }
+}
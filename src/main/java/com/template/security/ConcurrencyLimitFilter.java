@@ -0,0 +1,208 @@
+package com.template.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.template.dto.ApiResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load shedding in front of the controllers. Each route group gets its own
+ * {@link AdaptiveConcurrencyLimiter}; requests over the current limit are
+ * answered with an immediate 503 instead of queueing on Tomcat threads.
+ * Runs ahead of the Spring Security chain so shed requests cost no JWT
+ * parsing or user lookup. Health probes are never shed and admin writes get
+ * extra headroom over the adaptive limit. The operations of a
+ * {@code POST /batch} request are admitted one by one through
+ * {@link #tryAcquire(String, String)}.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 10)
+@RequiredArgsConstructor
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${concurrency-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${concurrency-limit.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${concurrency-limit.min-limit:4}")
+    private int minLimit;
+
+    @Value("${concurrency-limit.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${concurrency-limit.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${concurrency-limit.rtt-tolerance:1.5}")
+    private double rttTolerance;
+
+    @Value("${concurrency-limit.window-millis:250}")
+    private long windowMillis;
+
+    @Value("${concurrency-limit.priority-headroom:2.0}")
+    private double priorityHeadroom;
+
+    private final Map<RouteGroup, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(RouteGroup.class);
+
+    @PostConstruct
+    void initLimiters() {
+        for (RouteGroup group : RouteGroup.values()) {
+            if (group == RouteGroup.HEALTH) {
+                continue;
+            }
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                    initialLimit, minLimit, maxLimit, smoothing, rttTolerance,
+                    TimeUnit.MILLISECONDS.toNanos(windowMillis), priorityHeadroom);
+            limiters.put(group, limiter);
+
+            Tags tags = Tags.of("group", group.name().toLowerCase(Locale.ROOT));
+            Gauge.builder("http.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tags(tags).register(meterRegistry);
+            Gauge.builder("http.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tags(tags).register(meterRegistry);
+            FunctionCounter.builder("http.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                    .tags(tags).register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        RouteGroup group = RouteGroup.of(request.getMethod(), request.getServletPath());
+        AdaptiveConcurrencyLimiter limiter = limiters.get(group);
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!limiter.tryAcquire(group.priority)) {
+            shed(request, response, group);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(start);
+        }
+    }
+
+    /**
+     * Admits one operation of a multi-operation request as if it had been sent
+     * directly, so batched writes count against the write limit and every
+     * operation holds its own slot. Returns null when the operation is shed;
+     * otherwise the caller releases the permit once the operation is done.
+     */
+    public Permit tryAcquire(String method, String path) {
+        RouteGroup group = RouteGroup.of(method, path);
+        AdaptiveConcurrencyLimiter limiter = enabled ? limiters.get(group) : null;
+        if (limiter == null) {
+            return Permit.NONE;
+        }
+        if (!limiter.tryAcquire(group.priority)) {
+            log.warn("Shedding batched {} operation {} {}: concurrency limit reached", group, method, path);
+            return null;
+        }
+        return new Permit(limiter, System.nanoTime());
+    }
+
+    private void shed(HttpServletRequest request, HttpServletResponse response, RouteGroup group) throws IOException {
+        log.warn("Shedding {} request to {}: concurrency limit reached", group, request.getRequestURI());
+        ApiResponse<?> body = ApiResponse.builder()
+                .success(false)
+                .message("Service is overloaded, retry later")
+                .statusCode(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .timestamp(LocalDateTime.now())
+                .path(request.getRequestURI())
+                .build();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    public record Permit(AdaptiveConcurrencyLimiter limiter, long startNanos) {
+
+        private static final Permit NONE = new Permit(null, 0L);
+
+        public void release() {
+            if (limiter != null) {
+                limiter.release(startNanos);
+            }
+        }
+    }
+
+    enum RouteGroup {
+        HEALTH(false),
+        AUTH(false),
+        PRODUCT_READ(false),
+        ADMIN_WRITE(true),
+        OTHER(false);
+
+        private final boolean priority;
+
+        RouteGroup(boolean priority) {
+            this.priority = priority;
+        }
+
+        static RouteGroup of(String method, String path) {
+            if (path.startsWith("/health") || path.startsWith("/actuator")) {
+                return HEALTH;
+            }
+            if (path.startsWith("/auth")) {
+                return AUTH;
+            }
+            // POST /products/batch and /admin/users/batch lookups only carry an id list in the
+            // body; they are reads. The multi-operation POST /batch itself falls through to
+            // OTHER and its operations are admitted individually.
+            boolean read = HttpMethod.GET.matches(method) || path.endsWith("/batch");
+            if (path.startsWith("/admin")) {
+                return read ? OTHER : ADMIN_WRITE;
+            }
+            if (path.startsWith("/products")) {
+                return read ? PRODUCT_READ : ADMIN_WRITE;
+            }
+            return OTHER;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.template.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.template.dto.ApiResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket limits per client IP and per target email for the public,
+ * BCrypt-backed auth routes. Runs ahead of {@link JwtAuthenticationFilter}, so a
+ * rejected request never reaches a user lookup or a password hash. Requests to
+ * any other path return from {@link #shouldNotFilter} after a single map lookup.
+ *
+ * <p>The body is buffered to read the target email, so bodies over
+ * {@code rate-limit.max-body-bytes} are refused with a 413 before anything is
+ * buffered (by Content-Length) or once the read passes the limit (chunked).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.routes:login,register}")
+    private List<String> routeNames;
+
+    @Value("${rate-limit.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+
+    @Value("${rate-limit.max-body-bytes:8192}")
+    private int maxBodyBytes;
+
+    private Map<String, RouteLimits> routes = Map.of();
+
+    @PostConstruct
+    void initRoutes() {
+        Map<String, RouteLimits> configured = new HashMap<>();
+        for (String name : routeNames) {
+            String path = environment.getProperty("rate-limit." + name + ".path", "/auth/" + name);
+            configured.put(path, new RouteLimits(
+                    registry(name, "ip", 20, 60),
+                    registry(name, "email", 5, 60)));
+        }
+        routes = Map.copyOf(configured);
+        log.info("Rate limiting {} on routes: {}", enabled ? "enabled" : "disabled", routes.keySet());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !routes.containsKey(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        RouteLimits limits = routes.get(request.getServletPath());
+        long now = System.nanoTime();
+
+        long wait = limits.perIp().tryAcquire(request.getRemoteAddr(), now);
+        if (wait > 0) {
+            reject(request, response, wait);
+            return;
+        }
+
+        if (request.getContentLengthLong() > maxBodyBytes) {
+            rejectTooLarge(request, response);
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            rejectTooLarge(request, response);
+            return;
+        }
+        CachedBodyRequest cached = new CachedBodyRequest(request, body);
+        String email = extractEmail(cached.body);
+        if (email != null) {
+            wait = limits.perEmail().tryAcquire(email, now);
+            if (wait > 0) {
+                reject(request, response, wait);
+                return;
+            }
+        }
+        filterChain.doFilter(cached, response);
+    }
+
+    private TokenBucketRegistry registry(String route, String dimension, int defaultCapacity, int defaultPeriodSeconds) {
+        String prefix = "rate-limit." + route + "." + dimension;
+        int capacity = environment.getProperty(prefix + ".capacity", Integer.class, defaultCapacity);
+        int periodSeconds = environment.getProperty(prefix + ".period-seconds", Integer.class, defaultPeriodSeconds);
+        return new TokenBucketRegistry(capacity, TimeUnit.SECONDS.toNanos(periodSeconds), maxTrackedKeys);
+    }
+
+    private String extractEmail(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode email = objectMapper.readTree(body).path("email");
+            return email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            // Malformed bodies are rejected by the controller; the IP bucket already applied.
+            return null;
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        log.warn("Rate limit exceeded on {} from {}", request.getServletPath(), request.getRemoteAddr());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        writeError(request, response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests, retry later");
+    }
+
+    private void rejectTooLarge(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.warn("Request body over {} bytes on {} from {}", maxBodyBytes, request.getServletPath(), request.getRemoteAddr());
+        // The rest of the body is not read, so the connection cannot be reused
+        response.setHeader(HttpHeaders.CONNECTION, "close");
+        writeError(request, response, HttpStatus.PAYLOAD_TOO_LARGE,
+                "Request body must be at most " + maxBodyBytes + " bytes");
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                            String message) throws IOException {
+        ApiResponse<?> body = ApiResponse.builder()
+                .success(false)
+                .message(message)
+                .statusCode(status.value())
+                .timestamp(LocalDateTime.now())
+                .path(request.getRequestURI())
+                .build();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private record RouteLimits(TokenBucketRegistry perIp, TokenBucketRegistry perEmail) {
+    }
+
+    /**
+     * Replays the (small, already bounded) auth body so the email can be
+     * inspected and the controller can still bind it afterwards.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.template.security;
+
+import com.template.service.PasswordRehashService;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * {@link DaoAuthenticationProvider} that upgrades outdated password hashes
+ * after a successful login in the background, rather than re-encoding on the
+ * login thread as the built-in {@code UserDetailsPasswordService} hook does.
+ */
+public class RehashingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final PasswordRehashService passwordRehashService;
+
+    public RehashingAuthenticationProvider(PasswordRehashService passwordRehashService) {
+        this.passwordRehashService = passwordRehashService;
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                         UserDetails user) {
+        if (authentication.getCredentials() != null && getPasswordEncoder().upgradeEncoding(user.getPassword())) {
+            passwordRehashService.rehash(user.getUsername(), user.getPassword(),
+                    authentication.getCredentials().toString());
+        }
+        return super.createSuccessAuthentication(principal, authentication, user);
+    }
+}
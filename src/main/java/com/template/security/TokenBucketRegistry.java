@@ -0,0 +1,89 @@
+package com.template.security;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded, self-expiring map of token buckets. When a new key finds the map
+ * at its bound, buckets that have refilled are dropped and then the least
+ * recently used ones, down to 90% of the bound, so the O(n) pass runs once
+ * per {@code maxKeys / 10} new keys rather than on every one. Every key keeps
+ * a bucket of its own: flooding the registry with distinct keys evicts the
+ * flood's oldest keys instead of pooling legitimate new keys into a shared
+ * bucket.
+ */
+public final class TokenBucketRegistry {
+
+    private final ConcurrentHashMap<String, Entry> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final int capacity;
+    private final long periodNanos;
+    private final int maxKeys;
+
+    public TokenBucketRegistry(int capacity, long periodNanos, int maxKeys) {
+        this.capacity = capacity;
+        this.periodNanos = periodNanos;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * @return {@code 0} when allowed, otherwise the nanos until the key may retry
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        Entry entry = buckets.get(key);
+        if (entry == null) {
+            if (buckets.size() >= maxKeys) {
+                makeRoom(nowNanos);
+            }
+            entry = buckets.computeIfAbsent(key, k -> new Entry(new TokenBucket(capacity, periodNanos, nowNanos)));
+        }
+        entry.lastUsedNanos = nowNanos;
+        return entry.bucket.tryAcquire(nowNanos);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * One caller evicts while the others insert regardless; the map may run a
+     * few entries over its bound until the pass finishes.
+     */
+    private void makeRoom(long nowNanos) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.values().removeIf(entry -> entry.bucket.isFull(nowNanos));
+            int excess = buckets.size() - maxKeys * 9 / 10;
+            if (excess <= 0) {
+                return;
+            }
+            // Snapshot the access times: sorting on fields that change underneath breaks the comparator
+            List<Candidate> candidates = new ArrayList<>(buckets.size());
+            buckets.forEach((key, entry) -> candidates.add(new Candidate(key, entry, entry.lastUsedNanos)));
+            candidates.sort(Comparator.comparingLong(Candidate::lastUsedNanos));
+            for (int i = 0; i < excess && i < candidates.size(); i++) {
+                buckets.remove(candidates.get(i).key(), candidates.get(i).entry());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static final class Entry {
+
+        private final TokenBucket bucket;
+        private volatile long lastUsedNanos;
+
+        private Entry(TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+
+    private record Candidate(String key, Entry entry, long lastUsedNanos) {
+    }
+}
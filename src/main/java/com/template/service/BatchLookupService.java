@@ -0,0 +1,107 @@
+package com.template.service;
+
+import com.template.dto.BatchResponse;
+import com.template.entity.BaseEntity;
+import com.template.exception.BadRequestException;
+import com.template.exception.ServiceUnavailableException;
+import com.template.repository.BaseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Resolves a list of ids with {@code $in} queries through {@code findAllById}:
+ * one query for ordinary lists, parallel chunks for very large ones. Results
+ * keep the request order and unknown or inactive ids are reported back.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BatchLookupService {
+
+    private final ThreadPoolTaskExecutor batchQueryExecutor;
+
+    @Value("${batch.max-ids:500}")
+    private int maxIds;
+
+    @Value("${batch.parallel-chunk-size:200}")
+    private int parallelChunkSize;
+
+    public <T extends BaseEntity, D> BatchResponse<D> findActiveByIds(
+            List<String> ids,
+            BaseRepository<T> repository,
+            Function<T, D> mapper) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequestException("At least one id is required");
+        }
+        // Checked before de-duplicating, so an oversized list is not hashed first
+        if (ids.size() > maxIds) {
+            throw new BadRequestException("Too many ids: " + ids.size() + " (max " + maxIds + ")");
+        }
+        List<String> unique = new ArrayList<>(new LinkedHashSet<>(ids));
+
+        Map<String, T> byId = new HashMap<>();
+        for (T entity : load(unique, repository)) {
+            if (Boolean.TRUE.equals(entity.getIsActive())) {
+                byId.put(entity.getId(), entity);
+            }
+        }
+
+        List<D> items = new ArrayList<>(byId.size());
+        List<String> missing = new ArrayList<>();
+        for (String id : unique) {
+            T entity = byId.get(id);
+            if (entity != null) {
+                items.add(mapper.apply(entity));
+            } else {
+                missing.add(id);
+            }
+        }
+        return BatchResponse.<D>builder()
+                .items(items)
+                .missingIds(missing)
+                .requested(unique.size())
+                .found(items.size())
+                .build();
+    }
+
+    private <T extends BaseEntity> List<T> load(List<String> ids, BaseRepository<T> repository) {
+        if (ids.size() <= parallelChunkSize) {
+            return repository.findAllById(ids);
+        }
+        log.debug("Splitting batch lookup of {} ids into chunks of {}", ids.size(), parallelChunkSize);
+        List<CompletableFuture<List<T>>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += parallelChunkSize) {
+            List<String> chunk = ids.subList(from, Math.min(ids.size(), from + parallelChunkSize));
+            try {
+                chunks.add(CompletableFuture.supplyAsync(() -> repository.findAllById(chunk), batchQueryExecutor));
+            } catch (TaskRejectedException e) {
+                throw new ServiceUnavailableException("Too many concurrent batch lookups, retry later", e);
+            }
+        }
+        List<T> result = new ArrayList<>(ids.size());
+        try {
+            for (CompletableFuture<List<T>> chunk : chunks) {
+                result.addAll(chunk.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+        return result;
+    }
+}
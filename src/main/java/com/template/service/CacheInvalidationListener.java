@@ -0,0 +1,17 @@
+package com.template.service;
+
+/**
+ * Implemented by in-process caches that hold product or user data. Beans of
+ * this type are notified by {@link ChangeStreamInvalidationService} whenever a
+ * document changes, on this instance, another instance, or directly in Mongo.
+ */
+public interface CacheInvalidationListener {
+
+    void invalidate(String collection, String id);
+
+    /**
+     * Called when individual changes may have been missed (resume history
+     * lost, collection dropped) and everything cached for the collection is suspect.
+     */
+    void invalidateAll(String collection);
+}
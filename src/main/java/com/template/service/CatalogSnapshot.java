@@ -0,0 +1,331 @@
+package com.template.service;
+
+import com.template.exception.BadRequestException;
+import org.bson.types.ObjectId;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable columnar snapshot of active products held in direct (off-heap)
+ * buffers: 12-byte ObjectIds sorted ascending, dictionary-encoded categories,
+ * fixed-point prices, quantities and timestamps. Queries are primitive scans;
+ * deltas are applied by merging into a fresh snapshot, so readers never lock.
+ */
+final class CatalogSnapshot {
+
+    static final int ID_BYTES = 12;
+    static final long NO_PRICE = -1L;
+
+    private final int rows;
+    private final ByteBuffer ids;
+    private final ByteBuffer categories;
+    private final ByteBuffer prices;
+    private final ByteBuffer quantities;
+    private final ByteBuffer createdAt;
+    private final ByteBuffer updatedAt;
+
+    private CatalogSnapshot(Builder builder) {
+        this.rows = builder.rows;
+        this.ids = builder.ids;
+        this.categories = builder.categories;
+        this.prices = builder.prices;
+        this.quantities = builder.quantities;
+        this.createdAt = builder.createdAt;
+        this.updatedAt = builder.updatedAt;
+    }
+
+    static CatalogSnapshot empty() {
+        return new Builder(16).build();
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    long memoryBytes() {
+        return (long) ids.capacity() + categories.capacity() + prices.capacity()
+                + quantities.capacity() + createdAt.capacity() + updatedAt.capacity();
+    }
+
+    /**
+     * Applies id-sorted deltas: changed rows replace their old version,
+     * inactive rows are dropped, unseen active rows are inserted in id order.
+     */
+    CatalogSnapshot merge(List<Row> sortedDelta) {
+        Builder next = new Builder(rows + sortedDelta.size());
+        int row = 0;
+        int delta = 0;
+        while (row < rows || delta < sortedDelta.size()) {
+            int cmp;
+            if (row >= rows) {
+                cmp = 1;
+            } else if (delta >= sortedDelta.size()) {
+                cmp = -1;
+            } else {
+                cmp = compareId(row, sortedDelta.get(delta).id());
+            }
+            if (cmp < 0) {
+                next.copyRow(this, row++);
+            } else {
+                Row changed = sortedDelta.get(delta++);
+                if (cmp == 0) {
+                    row++;
+                }
+                if (changed.active()) {
+                    next.add(changed);
+                }
+            }
+        }
+        return next.build();
+    }
+
+    /** Whether merging {@code delta} would leave this snapshot as it is. */
+    boolean unchanged(Row delta) {
+        int row = find(delta.id());
+        if (row < 0) {
+            return !delta.active();
+        }
+        return delta.active() && updatedAt.getLong(row * 8) == delta.updatedAt();
+    }
+
+    Result query(Filter filter, long offset, int limit, int maxWindow) {
+        long window = offset + limit;
+        if (window > maxWindow) {
+            throw new BadRequestException("Page window too deep: " + window + " (max " + maxWindow + ")");
+        }
+        TopK top = new TopK((int) window);
+        long total = 0;
+        for (int row = 0; row < rows; row++) {
+            if (filter.categoryCode() != null && categories.getInt(row * 4) != filter.categoryCode()) {
+                continue;
+            }
+            int quantity = quantities.getInt(row * 4);
+            if (filter.inStock() != null && (quantity > 0) != filter.inStock()) {
+                continue;
+            }
+            long price = prices.getLong(row * 8);
+            if (filter.minPrice() != null && (price == NO_PRICE || price < filter.minPrice())) {
+                continue;
+            }
+            if (filter.maxPrice() != null && (price == NO_PRICE || price > filter.maxPrice())) {
+                continue;
+            }
+            total++;
+            long key = filter.sortByPrice() ? price : createdAt.getLong(row * 8);
+            top.offer(filter.descending() ? -key : key, row);
+        }
+
+        int[] ordered = top.sortedRows();
+        List<ObjectId> page = new ArrayList<>(limit);
+        for (int i = (int) offset; i < ordered.length; i++) {
+            page.add(idAt(ordered[i]));
+        }
+        return new Result(total, page);
+    }
+
+    private ObjectId idAt(int row) {
+        byte[] bytes = new byte[ID_BYTES];
+        ids.get(row * ID_BYTES, bytes);
+        return new ObjectId(bytes);
+    }
+
+    private int find(byte[] id) {
+        int low = 0;
+        int high = rows - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareId(mid, id);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int compareId(int row, byte[] other) {
+        int base = row * ID_BYTES;
+        for (int i = 0; i < ID_BYTES; i++) {
+            int cmp = Integer.compare(ids.get(base + i) & 0xff, other[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    record Row(byte[] id, boolean active, int category, long price, int quantity, long createdAt, long updatedAt) {
+    }
+
+    record Filter(Integer categoryCode, Boolean inStock, Long minPrice, Long maxPrice,
+                  boolean sortByPrice, boolean descending) {
+    }
+
+    record Result(long total, List<ObjectId> ids) {
+    }
+
+    static final class Builder {
+
+        private int rows;
+        private int capacity;
+        private ByteBuffer ids;
+        private ByteBuffer categories;
+        private ByteBuffer prices;
+        private ByteBuffer quantities;
+        private ByteBuffer createdAt;
+        private ByteBuffer updatedAt;
+
+        Builder(int capacity) {
+            allocate(Math.max(16, capacity));
+        }
+
+        Builder add(Row row) {
+            ensureCapacity();
+            ids.put(rows * ID_BYTES, row.id());
+            categories.putInt(rows * 4, row.category());
+            prices.putLong(rows * 8, row.price());
+            quantities.putInt(rows * 4, row.quantity());
+            createdAt.putLong(rows * 8, row.createdAt());
+            updatedAt.putLong(rows * 8, row.updatedAt());
+            rows++;
+            return this;
+        }
+
+        void copyRow(CatalogSnapshot source, int row) {
+            ensureCapacity();
+            ids.put(rows * ID_BYTES, source.ids, row * ID_BYTES, ID_BYTES);
+            categories.putInt(rows * 4, source.categories.getInt(row * 4));
+            prices.putLong(rows * 8, source.prices.getLong(row * 8));
+            quantities.putInt(rows * 4, source.quantities.getInt(row * 4));
+            createdAt.putLong(rows * 8, source.createdAt.getLong(row * 8));
+            updatedAt.putLong(rows * 8, source.updatedAt.getLong(row * 8));
+            rows++;
+        }
+
+        CatalogSnapshot build() {
+            return new CatalogSnapshot(this);
+        }
+
+        private void ensureCapacity() {
+            if (rows < capacity) {
+                return;
+            }
+            ByteBuffer[] old = {ids, categories, prices, quantities, createdAt, updatedAt};
+            allocate(capacity * 2);
+            ByteBuffer[] grown = {ids, categories, prices, quantities, createdAt, updatedAt};
+            for (int i = 0; i < old.length; i++) {
+                grown[i].put(0, old[i], 0, old[i].capacity());
+            }
+        }
+
+        private void allocate(int newCapacity) {
+            capacity = newCapacity;
+            ids = direct(newCapacity * ID_BYTES);
+            categories = direct(newCapacity * 4);
+            prices = direct(newCapacity * 8);
+            quantities = direct(newCapacity * 4);
+            createdAt = direct(newCapacity * 8);
+            updatedAt = direct(newCapacity * 8);
+        }
+
+        private static ByteBuffer direct(int bytes) {
+            return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * Bounded max-heap over (key, row) keeping the {@code capacity} smallest entries.
+     */
+    private static final class TopK {
+
+        private final long[] keys;
+        private final int[] rows;
+        private int size;
+
+        TopK(int capacity) {
+            this.keys = new long[capacity];
+            this.rows = new int[capacity];
+        }
+
+        void offer(long key, int row) {
+            if (keys.length == 0) {
+                return;
+            }
+            if (size < keys.length) {
+                keys[size] = key;
+                rows[size] = row;
+                siftUp(size++);
+            } else if (less(key, row, keys[0], rows[0])) {
+                keys[0] = key;
+                rows[0] = row;
+                siftDown(0);
+            }
+        }
+
+        int[] sortedRows() {
+            int n = size;
+            long[] sortedKeys = Arrays.copyOf(keys, n);
+            int[] sorted = Arrays.copyOf(rows, n);
+            // Heap-sort in place: repeatedly move the max to the end.
+            for (int end = n - 1; end > 0; end--) {
+                swap(sortedKeys, sorted, 0, end);
+                siftDown(sortedKeys, sorted, 0, end);
+            }
+            return sorted;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!less(keys[parent], rows[parent], keys[i], rows[i])) {
+                    return;
+                }
+                swap(keys, rows, parent, i);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            siftDown(keys, rows, i, size);
+        }
+
+        private static void siftDown(long[] keys, int[] rows, int i, int size) {
+            while (true) {
+                int largest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && less(keys[largest], rows[largest], keys[left], rows[left])) {
+                    largest = left;
+                }
+                if (right < size && less(keys[largest], rows[largest], keys[right], rows[right])) {
+                    largest = right;
+                }
+                if (largest == i) {
+                    return;
+                }
+                swap(keys, rows, i, largest);
+                i = largest;
+            }
+        }
+
+        private static boolean less(long keyA, int rowA, long keyB, int rowB) {
+            return keyA < keyB || (keyA == keyB && rowA < rowB);
+        }
+
+        private static void swap(long[] keys, int[] rows, int a, int b) {
+            long key = keys[a];
+            keys[a] = keys[b];
+            keys[b] = key;
+            int row = rows[a];
+            rows[a] = rows[b];
+            rows[b] = row;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.template.service;
+
+import com.template.dto.ProductBrowseRequest;
+import com.template.dto.ProductDTO;
+import com.template.entity.Product;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-memory read engine for browse queries (category, stock, price
+ * range, sorted by price or recency). Keeps a {@link CatalogSnapshot} of active
+ * products off-heap, refreshed from {@code updatedAt} deltas, answers the
+ * filter/sort/page part with primitive scans and only then resolves the page's
+ * DTOs through {@link ProductDTOCache}.
+ *
+ * <p>Each delta reads everything updated since shortly before the previous
+ * refresh started, so writes that were in flight or stamped by a slightly
+ * slower clock are not missed; rows the snapshot already holds at the same
+ * {@code updatedAt} are dropped, and the snapshot is only rebuilt when
+ * something actually changed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSnapshotService {
+
+    static final int PRICE_SCALE = 4;
+    // Whole-number digits that always fit in a long at PRICE_SCALE
+    private static final int MAX_PRICE_DIGITS = 14;
+    private static final long DELTA_OVERLAP_MILLIS = 5_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductService productService;
+    private final ProductDTOCache productDTOCache;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${catalog-snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${catalog-snapshot.max-page-window:10000}")
+    private int maxPageWindow;
+
+    private final Map<String, Integer> categoryCodes = new ConcurrentHashMap<>();
+    private final AtomicInteger nextCategoryCode = new AtomicInteger();
+    private final AtomicLong lastRefreshMillis = new AtomicLong();
+    private volatile CatalogSnapshot snapshot;
+    private volatile long watermark = Long.MIN_VALUE;
+
+    @PostConstruct
+    void initMetrics() {
+        Gauge.builder("catalog.snapshot.rows", this, s -> s.snapshot == null ? 0 : s.snapshot.rows())
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.bytes", this, s -> s.snapshot == null ? 0 : s.snapshot.memoryBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return enabled && snapshot != null;
+    }
+
+    public Page<ProductDTO> browse(ProductBrowseRequest request, Pageable pageable) {
+        CatalogSnapshot current = snapshot;
+        Integer categoryCode = null;
+        if (request.getCategory() != null) {
+            categoryCode = categoryCodes.get(request.getCategory());
+            if (categoryCode == null) {
+                return Page.empty(pageable);
+            }
+        }
+        CatalogSnapshot.Filter filter = new CatalogSnapshot.Filter(
+                categoryCode,
+                request.getInStock(),
+                priceFilter("minPrice", request.getMinPrice()),
+                priceFilter("maxPrice", request.getMaxPrice()),
+                request.getSortBy() == ProductBrowseRequest.SortBy.PRICE,
+                request.isDescending());
+        CatalogSnapshot.Result result = current.query(filter, pageable.getOffset(), pageable.getPageSize(), maxPageWindow);
+
+        List<String> ids = result.ids().stream().map(ObjectId::toHexString).toList();
+        List<ProductDTO> content = productDTOCache.getAll(ids, misses -> productService.getProductsByIds(misses).getItems());
+        return new PageImpl<>(content, pageable, result.total());
+    }
+
+    public Map<String, Object> getStats() {
+        CatalogSnapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("rows", current == null ? 0 : current.rows());
+        stats.put("offHeapBytes", current == null ? 0 : current.memoryBytes());
+        stats.put("categories", categoryCodes.size());
+        stats.put("lastRefreshMillis", lastRefreshMillis.get());
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog-snapshot.refresh-interval-millis:5000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            CatalogSnapshot current = snapshot;
+            Query query;
+            if (current == null) {
+                query = Query.query(Criteria.where("isActive").is(true));
+            } else {
+                query = Query.query(Criteria.where("updatedAt").gt(toLocal(watermark - DELTA_OVERLAP_MILLIS)));
+            }
+            query.with(Sort.by("_id"));
+            query.fields().include("_id", "category", "price", "quantity", "createdAt", "updatedAt", "isActive");
+
+            List<CatalogSnapshot.Row> rows = new ArrayList<>();
+            try (Stream<Product> products = mongoTemplate.stream(query, Product.class)) {
+                products.forEach(product -> {
+                    CatalogSnapshot.Row row = toRow(product);
+                    if (row != null && (current == null || !current.unchanged(row))) {
+                        rows.add(row);
+                    }
+                });
+            }
+            watermark = start;
+            if (current != null && rows.isEmpty()) {
+                return;
+            }
+            CatalogSnapshot next = (current == null ? CatalogSnapshot.empty() : current).merge(rows);
+            snapshot = next;
+            lastRefreshMillis.set(System.currentTimeMillis() - start);
+            log.debug("Catalog snapshot refreshed: {} changed rows, {} total, {} bytes off-heap",
+                    rows.size(), next.rows(), next.memoryBytes());
+        } catch (RuntimeException e) {
+            log.error("Catalog snapshot refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private CatalogSnapshot.Row toRow(Product product) {
+        if (!ObjectId.isValid(product.getId())) {
+            log.warn("Product {} has a non-ObjectId id; not included in the catalog snapshot", product.getId());
+            return null;
+        }
+        int category = product.getCategory() == null
+                ? -1
+                : categoryCodes.computeIfAbsent(product.getCategory(), c -> nextCategoryCode.getAndIncrement());
+        return new CatalogSnapshot.Row(
+                new ObjectId(product.getId()).toByteArray(),
+                Boolean.TRUE.equals(product.getIsActive()),
+                category,
+                product.getPrice() == null ? CatalogSnapshot.NO_PRICE : rowPrice(product),
+                product.getQuantity() == null ? 0 : product.getQuantity(),
+                toEpochMillis(product.getCreatedAt()),
+                toEpochMillis(product.getUpdatedAt()));
+    }
+
+    private static Long priceFilter(String name, BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        return toFixedPoint(PriceBounds.check(name, price));
+    }
+
+    /** Out-of-range prices are clamped so the product still sorts last (or first) instead of failing the refresh. */
+    private static long rowPrice(Product product) {
+        Long fixed = toFixedPoint(product.getPrice());
+        if (fixed != null) {
+            return fixed;
+        }
+        log.warn("Product {} has an out-of-range price {}; clamped in the catalog snapshot",
+                product.getId(), product.getPrice());
+        return product.getPrice().signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+    }
+
+    /** Price in units of 10^-PRICE_SCALE, or null when it has more than MAX_PRICE_DIGITS whole digits. */
+    static Long toFixedPoint(BigDecimal price) {
+        if (price.precision() - price.scale() > MAX_PRICE_DIGITS) {
+            return null;
+        }
+        return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time == null ? 0L : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocal(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
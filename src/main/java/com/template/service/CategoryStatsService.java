@@ -0,0 +1,164 @@
+package com.template.service;
+
+import com.template.dto.CategoryStatsDTO;
+import com.template.entity.CategoryStats;
+import com.template.entity.Product;
+import com.template.exception.ResourceNotFoundException;
+import com.template.repository.CategoryStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps {@code category_stats} up to date. Each run recomputes only the
+ * categories touched since the previous run (by {@code updatedAt}, plus
+ * categories a product was moved out of) with one aggregation that ends in
+ * {@code $merge}; reads are then a primary-key lookup regardless of catalog size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryStatsService {
+
+    private static final String STATE_COLLECTION = "category_stats_state";
+    private static final String STATE_ID = "watermark";
+    private static final Duration WATERMARK_OVERLAP = Duration.ofSeconds(5);
+
+    private final MongoTemplate mongoTemplate;
+    private final CategoryStatsRepository categoryStatsRepository;
+
+    @Value("${category-stats.enabled:true}")
+    private boolean enabled;
+
+    public List<CategoryStatsDTO> getAllStats() {
+        log.info("Fetching statistics for all categories");
+        return categoryStatsRepository.findAll(Sort.by("_id")).stream()
+                .map(this::mapToDTO)
+                .toList();
+    }
+
+    public CategoryStatsDTO getStats(String category) {
+        log.info("Fetching statistics for category: {}", category);
+        CategoryStats stats = categoryStatsRepository.findById(category)
+                .orElseThrow(() -> new ResourceNotFoundException("No statistics for category: " + category));
+        return mapToDTO(stats);
+    }
+
+    /**
+     * Flags a category whose membership changed in a way {@code updatedAt}
+     * cannot reveal, e.g. a product moved to another category.
+     */
+    public void markDirty(String category) {
+        if (category == null) {
+            return;
+        }
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(category)),
+                Update.update("dirty", true),
+                CategoryStats.class);
+    }
+
+    @Scheduled(fixedDelayString = "${category-stats.refresh-interval-millis:60000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        Instant runStart = Instant.now();
+        Instant watermark = loadWatermark();
+
+        Set<String> touched = new HashSet<>();
+        Query changed = watermark == null
+                ? new Query()
+                : Query.query(Criteria.where("updatedAt").gt(toLocal(watermark.minus(WATERMARK_OVERLAP))));
+        touched.addAll(mongoTemplate.findDistinct(changed, "category", Product.class, String.class));
+        touched.addAll(mongoTemplate.findDistinct(
+                Query.query(Criteria.where("dirty").is(true)), "_id", CategoryStats.class, String.class));
+        touched.remove(null);
+
+        if (!touched.isEmpty()) {
+            recompute(touched, runStart);
+            log.info("Recomputed statistics for {} categories", touched.size());
+        }
+        saveWatermark(runStart);
+    }
+
+    private void recompute(Set<String> categories, Instant runStart) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("category").in(categories).and("isActive").is(true)),
+                Aggregation.project("category", "quantity")
+                        .and(ConvertOperators.valueOf("price").convertToDecimal()).as("price"),
+                Aggregation.project("category", "quantity", "price")
+                        .and(ArithmeticOperators.valueOf("price").multiplyBy("quantity")).as("value"),
+                Aggregation.group("category")
+                        .count().as("productCount")
+                        .sum("quantity").as("totalStock")
+                        .sum("value").as("inventoryValue")
+                        .min("price").as("minPrice")
+                        .avg("price").as("avgPrice")
+                        .max("price").as("maxPrice"),
+                Aggregation.addFields()
+                        .addFieldWithValue("computedAt", runStart)
+                        .addFieldWithValue("dirty", false)
+                        .build(),
+                Aggregation.merge()
+                        .intoCollection("category_stats")
+                        .on("_id")
+                        .whenMatched(MergeOperation.WhenDocumentsMatch.replaceDocument())
+                        .whenDocumentsDontMatch(MergeOperation.WhenDocumentsDontMatch.insertNewDocument())
+                        .build());
+        mongoTemplate.aggregate(aggregation, Product.class, Document.class);
+
+        // Categories with no active products left produced no group; drop their stale rows.
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(categories)
+                .and("computedAt").lt(runStart)), CategoryStats.class);
+    }
+
+    private Instant loadWatermark() {
+        Document state = mongoTemplate.findById(STATE_ID, Document.class, STATE_COLLECTION);
+        return state == null ? null : state.getDate("lastRunAt").toInstant();
+    }
+
+    private void saveWatermark(Instant runStart) {
+        mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(STATE_ID)),
+                Update.update("lastRunAt", runStart),
+                STATE_COLLECTION);
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    private CategoryStatsDTO mapToDTO(CategoryStats stats) {
+        return CategoryStatsDTO.builder()
+                .category(stats.getCategory())
+                .productCount(stats.getProductCount())
+                .totalStock(stats.getTotalStock())
+                .inventoryValue(stats.getInventoryValue())
+                .minPrice(stats.getMinPrice())
+                .avgPrice(stats.getAvgPrice())
+                .maxPrice(stats.getMaxPrice())
+                .computedAt(stats.getComputedAt())
+                .build();
+    }
+}
@@ -0,0 +1,285 @@
+package com.template.service;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.template.entity.ChangeStreamCheckpoint;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonMinKey;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows the product and user collections through Mongo change streams and
+ * publishes invalidations to every {@link CacheInvalidationListener}. The
+ * resume token is checkpointed per instance ({@code cache.invalidation.instance-id},
+ * the host name by default) so a restart continues where that instance stopped
+ * rather than where whichever replica saved last stopped.
+ * Deployments without change streams (standalone mongod) fall back to polling
+ * {@code updatedAt}, paging on {@code (updatedAt, _id)} so documents sharing a
+ * timestamp across a page boundary are not skipped; polling cannot observe
+ * hard deletes made outside the app.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeStreamInvalidationService implements SmartLifecycle {
+
+    private static final int CHANGE_STREAMS_UNSUPPORTED = 40573;
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectProvider<CacheInvalidationListener> listeners;
+
+    @Value("${cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.invalidation.instance-id:${HOSTNAME:local}}")
+    private String instanceId;
+
+    @Value("${cache.invalidation.collections:products,users}")
+    private List<String> collections;
+
+    @Value("${cache.invalidation.checkpoint-interval-millis:1000}")
+    private long checkpointIntervalMillis;
+
+    @Value("${cache.invalidation.poll-interval-millis:2000}")
+    private long pollIntervalMillis;
+
+    @Value("${cache.invalidation.poll-batch-size:500}")
+    private int pollBatchSize;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (String collection : collections) {
+            Thread worker = new Thread(() -> follow(collection), "cache-invalidation-" + collection);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Cache invalidation following collections: {}", collections);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void follow(String collection) {
+        long backoffMillis = 500;
+        while (running) {
+            try {
+                watch(collection);
+                backoffMillis = 500;
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == CHANGE_STREAMS_UNSUPPORTED) {
+                    log.warn("Change streams unavailable for {}, falling back to polling updatedAt", collection);
+                    poll(collection);
+                    return;
+                }
+                if (e.getErrorCode() == CHANGE_STREAM_HISTORY_LOST) {
+                    log.warn("Resume point for {} is no longer in the oplog; invalidating everything", collection);
+                    saveResumeToken(collection, null);
+                    publishAll(collection);
+                    continue;
+                }
+                log.error("Change stream on {} failed: {}", collection, e.getMessage());
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Change stream on {} failed: {}", collection, e.getMessage());
+            }
+            if (!sleep(backoffMillis)) {
+                return;
+            }
+            backoffMillis = Math.min(backoffMillis * 2, 30_000);
+        }
+    }
+
+    private void watch(String collection) {
+        var stream = mongoTemplate.getCollection(collection)
+                .watch()
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        BsonDocument resumeToken = loadResumeToken(collection);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            BsonDocument lastSaved = resumeToken;
+            long lastSavedAt = System.currentTimeMillis();
+            while (running) {
+                ChangeStreamDocument<Document> event = cursor.tryNext();
+                if (event != null && !publish(collection, event)) {
+                    // The stream was invalidated (drop / rename); restart from scratch.
+                    saveResumeToken(collection, null);
+                    return;
+                }
+                BsonDocument current = cursor.getResumeToken();
+                long now = System.currentTimeMillis();
+                if (current != null && !current.equals(lastSaved) && now - lastSavedAt >= checkpointIntervalMillis) {
+                    saveResumeToken(collection, current);
+                    lastSaved = current;
+                    lastSavedAt = now;
+                }
+            }
+            BsonDocument current = cursor.getResumeToken();
+            if (current != null && !current.equals(lastSaved)) {
+                saveResumeToken(collection, current);
+            }
+        }
+    }
+
+    private boolean publish(String collection, ChangeStreamDocument<Document> event) {
+        OperationType type = event.getOperationType();
+        if (type == OperationType.DROP || type == OperationType.RENAME
+                || type == OperationType.DROP_DATABASE || type == OperationType.INVALIDATE) {
+            publishAll(collection);
+            return false;
+        }
+        BsonDocument key = event.getDocumentKey();
+        if (key != null && key.containsKey("_id")) {
+            publish(collection, idOf(key.get("_id")));
+        }
+        return true;
+    }
+
+    private void poll(String collection) {
+        ChangeStreamCheckpoint checkpoint = mongoTemplate.findById(checkpointId(collection, instanceId), ChangeStreamCheckpoint.class);
+        boolean resume = checkpoint != null && checkpoint.getLastPolledAt() != null;
+        Date lastSeen = Date.from(resume ? checkpoint.getLastPolledAt() : Instant.now());
+        // MinKey sorts before every _id, so a fresh start takes everything at lastSeen
+        Object lastId = resume && checkpoint.getLastPolledId() != null ? checkpoint.getLastPolledId() : new BsonMinKey();
+        while (running) {
+            int seen = 0;
+            try (MongoCursor<Document> cursor = mongoTemplate.getCollection(collection)
+                    .find(Filters.or(
+                            Filters.gt("updatedAt", lastSeen),
+                            Filters.and(Filters.eq("updatedAt", lastSeen), Filters.gt("_id", lastId))))
+                    .projection(Projections.include("_id", "updatedAt"))
+                    .sort(Sorts.ascending("updatedAt", "_id"))
+                    .limit(pollBatchSize)
+                    .iterator()) {
+                while (cursor.hasNext()) {
+                    Document document = cursor.next();
+                    publish(collection, idOf(document.toBsonDocument().get("_id")));
+                    lastSeen = document.getDate("updatedAt");
+                    lastId = document.get("_id");
+                    seen++;
+                }
+                if (seen > 0) {
+                    savePollCheckpoint(collection, lastSeen.toInstant(), lastId);
+                }
+            } catch (RuntimeException e) {
+                log.error("Polling {} for changes failed: {}", collection, e.getMessage());
+            }
+            if (seen < pollBatchSize && !sleep(pollIntervalMillis)) {
+                return;
+            }
+        }
+    }
+
+    private void publish(String collection, String id) {
+        for (CacheInvalidationListener listener : listeners) {
+            try {
+                listener.invalidate(collection, id);
+            } catch (RuntimeException e) {
+                log.error("Cache invalidation listener {} failed: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    private void publishAll(String collection) {
+        for (CacheInvalidationListener listener : listeners) {
+            try {
+                listener.invalidateAll(collection);
+            } catch (RuntimeException e) {
+                log.error("Cache invalidation listener {} failed: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    private BsonDocument loadResumeToken(String collection) {
+        ChangeStreamCheckpoint checkpoint = mongoTemplate.findById(checkpointId(collection, instanceId), ChangeStreamCheckpoint.class);
+        return checkpoint == null || checkpoint.getResumeToken() == null
+                ? null
+                : BsonDocument.parse(checkpoint.getResumeToken());
+    }
+
+    private void saveResumeToken(String collection, BsonDocument resumeToken) {
+        mongoTemplate.save(ChangeStreamCheckpoint.builder()
+                .id(checkpointId(collection, instanceId))
+                .collection(collection)
+                .instanceId(instanceId)
+                .resumeToken(resumeToken == null ? null : resumeToken.toJson())
+                .updatedAt(Instant.now())
+                .build());
+    }
+
+    private void savePollCheckpoint(String collection, Instant lastPolledAt, Object lastPolledId) {
+        mongoTemplate.save(ChangeStreamCheckpoint.builder()
+                .id(checkpointId(collection, instanceId))
+                .collection(collection)
+                .instanceId(instanceId)
+                .lastPolledAt(lastPolledAt)
+                .lastPolledId(lastPolledId)
+                .updatedAt(Instant.now())
+                .build());
+    }
+
+    static String checkpointId(String collection, String instanceId) {
+        return collection + "@" + instanceId;
+    }
+
+    private static String idOf(BsonValue id) {
+        if (id.isObjectId()) {
+            ObjectId objectId = id.asObjectId().getValue();
+            return objectId.toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : id.toString();
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return running;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
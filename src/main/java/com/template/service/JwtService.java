@@ -13,12 +13,16 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 @Slf4j
 public class JwtService {
 
+    /** Issue time in milliseconds; {@code iat} has whole seconds only, too coarse to order against a revoke-all. */
+    public static final String ISSUED_AT_MILLIS = "iat_ms";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -52,30 +56,29 @@ public class JwtService {
             long expiration
     ) {
         log.debug("Building JWT token for user: {}", userDetails.getUsername());
+        long now = System.currentTimeMillis();
         return Jwts
                 .builder()
                 .claims(extraClaims)
                 .subject(userDetails.getUsername())
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
+                .id(UUID.randomUUID().toString())
+                .issuedAt(new Date(now))
+                .claim(ISSUED_AT_MILLIS, now)
+                .expiration(new Date(now + expiration))
                 .signWith(getSignInKey())
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /** For callers that already parsed the token, so the signature is not verified twice. */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject()) && !claims.getExpiration().before(new Date());
     }
 
-    private Claims extractAllClaims(String token) {
+    public Claims extractAllClaims(String token) {
         try {
             return Jwts
                     .parser()
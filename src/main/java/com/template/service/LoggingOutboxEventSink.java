@@ -0,0 +1,22 @@
+package com.template.service;
+
+import com.template.entity.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Slf4j
+public class LoggingOutboxEventSink implements OutboxEventSink {
+
+    @Override
+    public void deliver(List<OutboxEvent> events) {
+        if (log.isDebugEnabled()) {
+            for (OutboxEvent event : events) {
+                log.debug("Outbox event {} {} {}:{}", event.getId(), event.getEventType(),
+                        event.getAggregateType(), event.getAggregateId());
+            }
+        }
+    }
+}
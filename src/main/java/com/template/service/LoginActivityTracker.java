@@ -0,0 +1,312 @@
+package com.template.service;
+
+import com.template.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts logins and failed attempts per user in memory and writes them
+ * behind: every {@code login-activity.flush-interval-millis} the accumulated
+ * deltas go to Mongo as one unordered bulk of {@code $inc}/{@code $max}
+ * updates, and once more on shutdown.
+ *
+ * <p>Lockout is decided here as well: after
+ * {@code login-activity.max-failed-attempts} failures, each within
+ * {@code login-activity.lockout-millis} of the one before, the account is
+ * locked for {@code login-activity.lockout-millis}. The lock is persisted with
+ * the next flush so other instances see it, but this instance answers from
+ * memory.
+ *
+ * <p>Entries whose streak and lock have expired are dropped on flush. Beyond
+ * {@code login-activity.max-tracked-users} the least recently seen flushed
+ * entries are evicted to make room; a new user is never turned away, since
+ * that would switch lockout off. An evicted lock is still enforced from the
+ * stored user.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoginActivityTracker {
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${login-activity.enabled:true}")
+    private boolean enabled;
+
+    @Value("${login-activity.max-failed-attempts:5}")
+    private int maxFailedAttempts;
+
+    @Value("${login-activity.lockout-millis:900000}")
+    private long lockoutMillis;
+
+    @Value("${login-activity.max-tracked-users:100000}")
+    private int maxTrackedUsers;
+
+    private final Map<String, Activity> activity = new ConcurrentHashMap<>();
+    private final Object evictionLock = new Object();
+    // Set when a sweep found nothing evictable; cleared by the next flush
+    private volatile boolean evictionExhausted;
+    private Counter evicted;
+
+    @PostConstruct
+    void initMetrics() {
+        evicted = meterRegistry.counter("login.activity.evicted");
+        Gauge.builder("login.activity.tracked", activity, Map::size).register(meterRegistry);
+    }
+
+    public void recordSuccess(String email) {
+        while (true) {
+            Activity entry = entry(email);
+            if (entry == null) {
+                return;
+            }
+            synchronized (entry) {
+                if (entry.removed) {
+                    continue;
+                }
+                entry.logins++;
+                entry.lastLoginAt = LocalDateTime.now();
+                entry.lastSeenMillis = System.currentTimeMillis();
+                entry.succeeded = true;
+                entry.failuresAfterSuccess = 0;
+                entry.consecutiveFailures = 0;
+                entry.dirty = true;
+                return;
+            }
+        }
+    }
+
+    public void recordFailure(String email) {
+        while (true) {
+            Activity entry = entry(email);
+            if (entry == null) {
+                return;
+            }
+            synchronized (entry) {
+                if (entry.removed) {
+                    continue;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                long nowMillis = System.currentTimeMillis();
+                if (streakExpired(entry, nowMillis)) {
+                    entry.consecutiveFailures = 0;
+                }
+                entry.failures++;
+                entry.failuresAfterSuccess++;
+                entry.lastFailedAt = now;
+                entry.lastSeenMillis = nowMillis;
+                entry.lastFailureMillis = nowMillis;
+                entry.consecutiveFailures++;
+                if (entry.consecutiveFailures >= maxFailedAttempts) {
+                    entry.lockedUntil = now.plusNanos(lockoutMillis * 1_000_000);
+                    entry.consecutiveFailures = 0;
+                    log.warn("Locking {} for {} ms after {} failed logins", email, lockoutMillis, maxFailedAttempts);
+                }
+                entry.dirty = true;
+                return;
+            }
+        }
+    }
+
+    /** When this instance has {@code email} locked until, or null. */
+    public LocalDateTime lockedUntil(String email) {
+        Activity entry = activity.get(email);
+        if (entry == null) {
+            return null;
+        }
+        synchronized (entry) {
+            return entry.lockedUntil;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${login-activity.flush-interval-millis:5000}")
+    public void flush() {
+        List<Flush> batch = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        long nowMillis = System.currentTimeMillis();
+        activity.forEach((email, entry) -> {
+            synchronized (entry) {
+                if (entry.dirty) {
+                    batch.add(new Flush(email, entry.logins, entry.failures, entry.lastLoginAt, entry.lastFailedAt,
+                            entry.succeeded, entry.failuresAfterSuccess, entry.lockedUntil));
+                    entry.clearDeltas();
+                } else if (streakExpired(entry, nowMillis)
+                        && (entry.lockedUntil == null || entry.lockedUntil.isBefore(now))) {
+                    // Recorders holding this entry see the flag and start a fresh one
+                    entry.removed = true;
+                    activity.remove(email, entry);
+                }
+            }
+        });
+        evictionExhausted = false;
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+            for (Flush flush : batch) {
+                bulk.updateOne(Query.query(Criteria.where("email").is(flush.email())), flush.toUpdate());
+            }
+            bulk.execute();
+            log.debug("Flushed login activity for {} users", batch.size());
+        } catch (RuntimeException e) {
+            log.error("Flushing login activity for {} users failed: {}", batch.size(), e.getMessage());
+            batch.forEach(this::restore);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private Activity entry(String email) {
+        if (!enabled || email == null) {
+            return null;
+        }
+        Activity entry = activity.get(email);
+        if (entry == null) {
+            if (activity.size() >= maxTrackedUsers && !evictionExhausted) {
+                evictLeastRecentlySeen();
+            }
+            entry = activity.computeIfAbsent(email, key -> new Activity());
+        }
+        return entry;
+    }
+
+    private boolean streakExpired(Activity entry, long nowMillis) {
+        return entry.consecutiveFailures == 0 || nowMillis - entry.lastFailureMillis > lockoutMillis;
+    }
+
+    /**
+     * Evicts flushed entries, least recently seen first, down to 90% of the
+     * limit. Entries with unflushed deltas are kept, so nothing is lost; if
+     * every entry is unflushed the map grows until the next flush.
+     */
+    private void evictLeastRecentlySeen() {
+        synchronized (evictionLock) {
+            int target = maxTrackedUsers * 9 / 10;
+            if (activity.size() < maxTrackedUsers) {
+                return;
+            }
+            int before = activity.size();
+            List<Map.Entry<String, Activity>> candidates = new ArrayList<>(activity.entrySet());
+            candidates.sort(Comparator.comparingLong(e -> e.getValue().lastSeenMillis));
+            for (Map.Entry<String, Activity> candidate : candidates) {
+                if (activity.size() <= target) {
+                    break;
+                }
+                Activity entry = candidate.getValue();
+                synchronized (entry) {
+                    if (!entry.dirty && !entry.removed) {
+                        entry.removed = true;
+                        activity.remove(candidate.getKey(), entry);
+                        evicted.increment();
+                    }
+                }
+            }
+            evictionExhausted = activity.size() >= before;
+        }
+    }
+
+    /** Puts the deltas of a failed flush back so the next flush retries them. */
+    private void restore(Flush flush) {
+        while (true) {
+            Activity entry = activity.computeIfAbsent(flush.email(), key -> new Activity());
+            synchronized (entry) {
+                if (entry.removed) {
+                    continue;
+                }
+                if (!entry.succeeded && flush.succeeded()) {
+                    entry.succeeded = true;
+                    entry.failuresAfterSuccess = flush.failuresAfterSuccess() + entry.failures;
+                }
+                entry.logins += flush.logins();
+                entry.failures += flush.failures();
+                entry.lastLoginAt = latest(entry.lastLoginAt, flush.lastLoginAt());
+                entry.lastFailedAt = latest(entry.lastFailedAt, flush.lastFailedAt());
+                entry.dirty = true;
+                return;
+            }
+        }
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a == null ? b : b == null || a.isAfter(b) ? a : b;
+    }
+
+    private static final class Activity {
+
+        // Deltas since the last flush
+        private int logins;
+        private int failures;
+        private LocalDateTime lastLoginAt;
+        private LocalDateTime lastFailedAt;
+        private boolean succeeded;
+        private int failuresAfterSuccess;
+        private boolean dirty;
+
+        // Lockout state, kept across flushes
+        private int consecutiveFailures;
+        private long lastFailureMillis;
+        private LocalDateTime lockedUntil;
+        private volatile long lastSeenMillis;
+        private boolean removed;
+
+        private void clearDeltas() {
+            logins = 0;
+            failures = 0;
+            lastLoginAt = null;
+            lastFailedAt = null;
+            succeeded = false;
+            failuresAfterSuccess = 0;
+            dirty = false;
+        }
+    }
+
+    private record Flush(String email, int logins, int failures, LocalDateTime lastLoginAt,
+                         LocalDateTime lastFailedAt, boolean succeeded, int failuresAfterSuccess,
+                         LocalDateTime lockedUntil) {
+
+        Update toUpdate() {
+            Update update = new Update();
+            if (logins > 0) {
+                update.inc("loginCount", logins).max("lastLoginAt", lastLoginAt);
+            }
+            if (failures > 0) {
+                update.inc("failedLoginCount", failures).max("lastFailedLoginAt", lastFailedAt);
+            }
+            // Failures since the last successful login: reset by a success in this window
+            if (succeeded) {
+                update.set("failedLoginAttempts", failuresAfterSuccess);
+            } else if (failures > 0) {
+                update.inc("failedLoginAttempts", failures);
+            }
+            if (lockedUntil != null) {
+                update.max("lockedUntil", lockedUntil);
+            }
+            return update;
+        }
+    }
+}
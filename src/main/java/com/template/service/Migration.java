@@ -0,0 +1,40 @@
+package com.template.service;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+/**
+ * A versioned data migration over one collection, run online by
+ * {@link MigrationRunner}. Beans of this type are picked up automatically and
+ * run once each, in version order.
+ *
+ * <p>The runner walks the collection in {@code _id} ranges and calls
+ * {@link #migrate} once per range, so a migration must be idempotent: after a
+ * crash the last range may be applied again. Versions are never reused; change
+ * a shipped migration by adding a new one.
+ */
+public interface Migration {
+
+    int version();
+
+    String description();
+
+    String collection();
+
+    /** Documents that still need this migration; combined with the range of each batch. */
+    default Criteria pending() {
+        return new Criteria();
+    }
+
+    UpdateDefinition update();
+
+    /**
+     * Applies the migration to the documents matching {@code batch} (one
+     * {@code _id} range and {@link #pending()}) and returns how many changed.
+     */
+    default long migrate(MongoTemplate mongoTemplate, Query batch) {
+        return mongoTemplate.updateMulti(batch, update(), collection()).getModifiedCount();
+    }
+}
@@ -0,0 +1,356 @@
+package com.template.service;
+
+import com.template.dto.MigrationStatusDTO;
+import com.template.entity.MigrationState;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs every registered {@link Migration} in the background, in version
+ * order, while the application serves traffic.
+ *
+ * <p>Each migration walks its collection in ascending {@code _id} ranges of
+ * {@code migration.batch-size} documents and checkpoints the end of each range
+ * in {@link MigrationState}, so a restart resumes where the last batch ended.
+ * Ranges assume the collection uses a single {@code _id} type, as every
+ * collection written by this application does. One instance at a time holds
+ * the lock document and runs batches; the others only poll for it.
+ *
+ * <p>Every acquisition or renewal of the lock increments its {@code fence},
+ * and a checkpoint is only written over one with an equal or lower fence. An
+ * instance that lost the lock mid-batch (GC pause, slow batch) therefore
+ * cannot overwrite the progress of the instance that took over; its batch
+ * itself is harmless to repeat, since migrations only touch documents that
+ * still match {@link Migration#pending()}.
+ *
+ * <p>Batches are spaced to stay under a docs/s throttle. A batch slower than
+ * {@code migration.latency-threshold-millis} is taken as Mongo being under
+ * load and halves the rate; each fast batch raises it again by a tenth of the
+ * maximum.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MigrationRunner {
+
+    private static final String LOCK_COLLECTION = "migration_lock";
+    private static final String LOCK_ID = "runner";
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectProvider<Migration> migrationBeans;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${migration.batch-size:500}")
+    private int batchSize;
+
+    @Value("${migration.max-docs-per-second:2000}")
+    private double maxDocsPerSecond;
+
+    @Value("${migration.min-docs-per-second:50}")
+    private double minDocsPerSecond;
+
+    @Value("${migration.latency-threshold-millis:250}")
+    private long latencyThresholdMillis;
+
+    @Value("${migration.lock-millis:30000}")
+    private long lockMillis;
+
+    @Value("${migration.max-backoff-millis:60000}")
+    private long maxBackoffMillis;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Set<Integer> completed = ConcurrentHashMap.newKeySet();
+    private List<Migration> migrations;
+    private volatile boolean lockHeld;
+    private long lockFence;
+    private volatile Integer runningVersion;
+    private volatile double docsPerSecond;
+    private long nextBatchAt;
+    private long backoffMillis;
+
+    private Counter scannedDocuments;
+    private Counter modifiedDocuments;
+
+    @PostConstruct
+    void init() {
+        migrations = migrationBeans.orderedStream()
+                .sorted(Comparator.comparingInt(Migration::version))
+                .toList();
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                throw new IllegalStateException("Duplicate migration version " + migrations.get(i).version());
+            }
+        }
+        docsPerSecond = maxDocsPerSecond / 2;
+        scannedDocuments = meterRegistry.counter("migration.documents", "outcome", "scanned");
+        modifiedDocuments = meterRegistry.counter("migration.documents", "outcome", "modified");
+        Gauge.builder("migration.throttle.docs.per.second", this, r -> r.runningVersion == null ? 0 : r.docsPerSecond)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${migration.poll-interval-millis:200}")
+    public void runNextBatch() {
+        if (!enabled || System.currentTimeMillis() < nextBatchAt || completed.size() == migrations.size()) {
+            return;
+        }
+        Migration migration = null;
+        try {
+            migration = nextMigration();
+            if (migration == null) {
+                releaseLock();
+                return;
+            }
+            if (!acquireLock()) {
+                // Another instance is running migrations; check again well before its lock would expire
+                nextBatchAt = System.currentTimeMillis() + lockMillis / 3;
+                return;
+            }
+            runBatch(migration);
+            backoffMillis = 0;
+        } catch (RuntimeException e) {
+            backoffMillis = backoffMillis == 0 ? 1000 : Math.min(backoffMillis * 2, maxBackoffMillis);
+            nextBatchAt = System.currentTimeMillis() + backoffMillis;
+            log.error("Migration batch failed, retrying in {} ms: {}", backoffMillis, e.getMessage());
+            if (migration != null) {
+                recordError(migration, e);
+            }
+        }
+    }
+
+    public List<MigrationStatusDTO> getStatus() {
+        Map<Integer, MigrationState> states = mongoTemplate.findAll(MigrationState.class).stream()
+                .collect(Collectors.toMap(MigrationState::getVersion, Function.identity()));
+        Document lock = mongoTemplate.findById(LOCK_ID, Document.class, LOCK_COLLECTION);
+        String lockOwner = lock != null && lock.getDate("expiresAt").after(new Date()) ? lock.getString("owner") : null;
+
+        List<MigrationStatusDTO> status = new ArrayList<>(migrations.size());
+        for (Migration migration : migrations) {
+            MigrationState state = states.get(migration.version());
+            MigrationStatusDTO.MigrationStatusDTOBuilder dto = MigrationStatusDTO.builder()
+                    .version(migration.version())
+                    .description(migration.description())
+                    .collection(migration.collection());
+            if (state == null) {
+                status.add(dto.status("PENDING").scanned(0L).modified(0L).batches(0).percentComplete(0.0).build());
+                continue;
+            }
+            boolean done = state.getStatus() == MigrationState.Status.COMPLETED;
+            dto.status(state.getStatus().name())
+                    .lastId(state.getLastId() == null ? null : state.getLastId().toString())
+                    .scanned(state.getScanned())
+                    .modified(state.getModified())
+                    .batches(state.getBatches())
+                    .percentComplete(done ? 100.0 : percentComplete(migration, state))
+                    .lastError(state.getLastError())
+                    .startedAt(state.getStartedAt())
+                    .updatedAt(state.getUpdatedAt())
+                    .completedAt(state.getCompletedAt());
+            if (!done) {
+                dto.runningOn(lockOwner);
+                if (Integer.valueOf(migration.version()).equals(runningVersion)) {
+                    dto.docsPerSecond(docsPerSecond);
+                }
+            }
+            status.add(dto.build());
+        }
+        return status;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (lockHeld) {
+            try {
+                releaseLock();
+            } catch (RuntimeException e) {
+                log.warn("Could not release migration lock: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Migration nextMigration() {
+        for (Migration migration : migrations) {
+            if (completed.contains(migration.version())) {
+                continue;
+            }
+            MigrationState state = mongoTemplate.findById(migration.version(), MigrationState.class);
+            if (state != null && state.getStatus() == MigrationState.Status.COMPLETED) {
+                completed.add(migration.version());
+                continue;
+            }
+            return migration;
+        }
+        return null;
+    }
+
+    private void runBatch(Migration migration) {
+        MigrationState state = mongoTemplate.findById(migration.version(), MigrationState.class);
+        if (state == null) {
+            log.info("Starting migration {}: {}", migration.version(), migration.description());
+            state = MigrationState.builder()
+                    .version(migration.version())
+                    .description(migration.description())
+                    .collection(migration.collection())
+                    .status(MigrationState.Status.RUNNING)
+                    .startedAt(Instant.now())
+                    .build();
+        }
+        runningVersion = migration.version();
+
+        long start = System.nanoTime();
+        Object from = state.getLastId();
+        Query range = Query.query(from == null ? new Criteria() : Criteria.where("_id").gt(from))
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(batchSize);
+        range.fields().include("_id");
+        List<Document> ids = mongoTemplate.find(range, Document.class, migration.collection());
+        long modified = 0;
+        if (!ids.isEmpty()) {
+            Object to = ids.get(ids.size() - 1).get("_id");
+            Criteria inRange = from == null ? Criteria.where("_id").lte(to) : Criteria.where("_id").gt(from).lte(to);
+            modified = migration.migrate(mongoTemplate,
+                    Query.query(new Criteria().andOperator(inRange, migration.pending())));
+            state.setLastId(to);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        state.setScanned(state.getScanned() + ids.size());
+        state.setModified(state.getModified() + modified);
+        state.setBatches(state.getBatches() + (ids.isEmpty() ? 0 : 1));
+        state.setLastError(null);
+        state.setUpdatedAt(Instant.now());
+        scannedDocuments.increment(ids.size());
+        modifiedDocuments.increment(modified);
+        if (ids.size() < batchSize) {
+            state.setStatus(MigrationState.Status.COMPLETED);
+            state.setCompletedAt(state.getUpdatedAt());
+        }
+        if (!saveFenced(state)) {
+            lockHeld = false;
+            runningVersion = null;
+            log.warn("Migration lock was taken over during a batch of migration {}; discarding its checkpoint",
+                    migration.version());
+            return;
+        }
+
+        if (state.getStatus() == MigrationState.Status.COMPLETED) {
+            completed.add(migration.version());
+            runningVersion = null;
+            log.info("Migration {} completed: {} documents scanned, {} modified in {} batches",
+                    migration.version(), state.getScanned(), state.getModified(), state.getBatches());
+            if (completed.size() == migrations.size()) {
+                releaseLock();
+            }
+            return;
+        }
+        throttle(ids.size(), elapsedMillis);
+    }
+
+    /** Writes the checkpoint unless an instance holding a newer fence has written one since. */
+    private boolean saveFenced(MigrationState state) {
+        state.setFence(lockFence);
+        Query query = Query.query(Criteria.where("_id").is(state.getVersion())
+                .orOperator(Criteria.where("fence").lte(lockFence), Criteria.where("fence").exists(false)));
+        try {
+            // No match means a newer fence; the upsert then collides with the existing _id
+            mongoTemplate.findAndReplace(query, state, FindAndReplaceOptions.options().upsert());
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private void throttle(int documents, long elapsedMillis) {
+        if (elapsedMillis > latencyThresholdMillis) {
+            docsPerSecond = Math.max(minDocsPerSecond, docsPerSecond / 2);
+            log.debug("Migration batch took {} ms; throttling to {} docs/s", elapsedMillis, docsPerSecond);
+        } else {
+            docsPerSecond = Math.min(maxDocsPerSecond, docsPerSecond + maxDocsPerSecond / 10);
+        }
+        long batchMillis = (long) (documents * 1000 / docsPerSecond);
+        nextBatchAt = System.currentTimeMillis() + Math.max(0, batchMillis - elapsedMillis);
+    }
+
+    private double percentComplete(Migration migration, MigrationState state) {
+        long estimated = mongoTemplate.estimatedCount(migration.collection());
+        return estimated == 0 ? 0.0 : Math.min(99.9, state.getScanned() * 100.0 / estimated);
+    }
+
+    private void recordError(Migration migration, RuntimeException e) {
+        try {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(migration.version())),
+                    new Update().set("lastError", e.getMessage()).set("updatedAt", Instant.now()),
+                    MigrationState.class);
+        } catch (RuntimeException ignored) {
+            // Mongo itself is failing; the error is already logged
+        }
+    }
+
+    /**
+     * Takes or renews the migration lock and its fence; a conflicting upsert
+     * means another instance holds it.
+     */
+    private boolean acquireLock() {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("_id").is(LOCK_ID)
+                .orOperator(Criteria.where("owner").is(instanceId), Criteria.where("expiresAt").lt(now)));
+        Update update = new Update()
+                .set("owner", instanceId)
+                .set("expiresAt", now.plusMillis(lockMillis))
+                .inc("fence", 1);
+        try {
+            Document lock = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), Document.class, LOCK_COLLECTION);
+            lockFence = ((Number) lock.get("fence")).longValue();
+            if (!lockHeld) {
+                log.info("Migration lock acquired by {}", instanceId);
+            }
+            lockHeld = true;
+        } catch (DuplicateKeyException e) {
+            lockHeld = false;
+        }
+        return lockHeld;
+    }
+
+    private void releaseLock() {
+        if (lockHeld) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(LOCK_ID).and("owner").is(instanceId)),
+                    LOCK_COLLECTION);
+            lockHeld = false;
+            runningVersion = null;
+        }
+    }
+}
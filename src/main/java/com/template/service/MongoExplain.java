@@ -0,0 +1,163 @@
+package com.template.service;
+
+import com.mongodb.client.MongoClient;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Re-runs a command the driver sent under {@code explain("executionStats")}
+ * and sums up what it cost: documents and keys examined against documents
+ * returned, and the stages of the winning plan. Shared by
+ * {@link SlowQueryMonitor} and the round-trip budget tests so both read
+ * explain output the same way.
+ */
+public final class MongoExplain {
+
+    /** Commands explain accepts. */
+    public static final Set<String> EXPLAINABLE = Set.of(
+            "find", "aggregate", "count", "distinct", "findAndModify", "update", "delete");
+
+    /** Session, transaction and write-concern fields that explain rejects. */
+    private static final Set<String> NOT_EXPLAINABLE = Set.of(
+            "$db", "lsid", "$clusterTime", "txnNumber", "startTransaction", "autocommit",
+            "$readPreference", "readConcern", "writeConcern", "apiVersion", "apiStrict", "apiDeprecationErrors");
+
+    private MongoExplain() {
+    }
+
+    public static Summary explain(MongoClient client, String database, BsonDocument command) {
+        BsonDocument output = client.getDatabase(database)
+                .runCommand(new BsonDocument("explain", explainable(command))
+                        .append("verbosity", new BsonString("executionStats")), BsonDocument.class);
+        return summarize(output);
+    }
+
+    /** The command without the fields explain rejects, and with bulk writes cut down to their first statement. */
+    static BsonDocument explainable(BsonDocument command) {
+        BsonDocument explainable = new BsonDocument();
+        for (Map.Entry<String, BsonValue> entry : command.entrySet()) {
+            if (!NOT_EXPLAINABLE.contains(entry.getKey())) {
+                explainable.put(entry.getKey(), firstStatement(entry.getKey(), entry.getValue()));
+            }
+        }
+        return explainable;
+    }
+
+    /** Bulk update/delete commands carry many statements; explain takes one. */
+    static BsonValue firstStatement(String field, BsonValue value) {
+        if ((field.equals("updates") || field.equals("deletes")) && value.isArray() && value.asArray().size() > 1) {
+            return new BsonArray(List.of(value.asArray().get(0)));
+        }
+        return value;
+    }
+
+    static Summary summarize(BsonDocument output) {
+        Summary summary = new Summary();
+        collectExecutionStats(output, summary);
+        collectWinningPlans(output, summary.winningPlan);
+        return summary;
+    }
+
+    /** Sums the executionStats sections; aggregate nests one per stage that runs a query. */
+    private static void collectExecutionStats(BsonValue value, Summary totals) {
+        if (value.isDocument()) {
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                if (entry.getKey().equals("executionStats") && entry.getValue().isDocument()) {
+                    BsonDocument stats = entry.getValue().asDocument();
+                    totals.docsExamined += longValue(stats, "totalDocsExamined");
+                    totals.keysExamined += longValue(stats, "totalKeysExamined");
+                    totals.nReturned += longValue(stats, "nReturned");
+                } else {
+                    collectExecutionStats(entry.getValue(), totals);
+                }
+            }
+        } else if (value.isArray()) {
+            for (BsonValue element : value.asArray()) {
+                collectExecutionStats(element, totals);
+            }
+        }
+    }
+
+    /** Stages of every winning plan, including the ones $lookup and $unionWith nest per stage. */
+    private static void collectWinningPlans(BsonValue value, List<String> stages) {
+        if (value.isDocument()) {
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                if (entry.getKey().equals("rejectedPlans")) {
+                    continue;
+                }
+                if (entry.getKey().equals("winningPlan")) {
+                    collectStages(entry.getValue(), stages);
+                } else {
+                    collectWinningPlans(entry.getValue(), stages);
+                }
+            }
+        } else if (value.isArray()) {
+            for (BsonValue element : value.asArray()) {
+                collectWinningPlans(element, stages);
+            }
+        }
+    }
+
+    private static void collectStages(BsonValue plan, List<String> stages) {
+        if (plan.isDocument()) {
+            BsonDocument document = plan.asDocument();
+            BsonValue stage = document.get("stage");
+            if (stage != null && stage.isString()) {
+                BsonValue indexName = document.get("indexName");
+                stages.add(indexName != null && indexName.isString()
+                        ? stage.asString().getValue() + "(" + indexName.asString().getValue() + ")"
+                        : stage.asString().getValue());
+            }
+            for (Map.Entry<String, BsonValue> entry : document.entrySet()) {
+                if (entry.getValue().isDocument() || entry.getValue().isArray()) {
+                    collectStages(entry.getValue(), stages);
+                }
+            }
+        } else if (plan.isArray()) {
+            for (BsonValue element : plan.asArray()) {
+                collectStages(element, stages);
+            }
+        }
+    }
+
+    private static long longValue(BsonDocument document, String key) {
+        BsonValue value = document.get(key);
+        return value != null && value.isNumber() ? value.asNumber().longValue() : 0;
+    }
+
+    public static final class Summary {
+
+        private long docsExamined;
+        private long keysExamined;
+        private long nReturned;
+        private final List<String> winningPlan = new ArrayList<>();
+
+        public long docsExamined() {
+            return docsExamined;
+        }
+
+        public long keysExamined() {
+            return keysExamined;
+        }
+
+        public long nReturned() {
+            return nReturned;
+        }
+
+        /** Winning plan stages, innermost last, with the index name for index scans. */
+        public List<String> winningPlan() {
+            return List.copyOf(winningPlan);
+        }
+
+        public boolean collectionScan() {
+            return winningPlan.contains("COLLSCAN");
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.template.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.template.dto.ApiResponse;
+import com.template.dto.MultiOperationRequest;
+import com.template.dto.MultiOperationResponse;
+import com.template.exception.BadRequestException;
+import com.template.security.ConcurrencyLimitFilter;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Executes the operations of a {@code POST /batch} request through the
+ * {@link DispatcherServlet}, so each one goes through the same controllers,
+ * validation, method security and exception handlers as a direct call.
+ *
+ * <p>The enclosing request has already been authenticated; its security
+ * context and headers (including {@code Authorization}) carry over to every
+ * operation, and the servlet filter chain (JWT parsing, rate limits) is not run
+ * again per operation. Each operation does take its own concurrency-limit
+ * permit, for the route group it would hit directly, and is answered with a
+ * 503 result when shed. Consecutive reads run in parallel on
+ * {@code multiOperationExecutor}; a write waits for the reads before it, runs
+ * on the request thread and is finished before anything after it starts.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MultiOperationService {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD");
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final Set<String> NOT_INHERITED_HEADERS = Set.of(
+            HttpHeaders.CONTENT_TYPE.toLowerCase(), HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(), HttpHeaders.EXPECT.toLowerCase());
+
+    private final ObjectProvider<DispatcherServlet> dispatcherServlet;
+    private final ThreadPoolTaskExecutor multiOperationExecutor;
+    private final ObjectMapper objectMapper;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Value("${multi-operation.max-operations:20}")
+    private int maxOperations;
+
+    @Value("${multi-operation.allowed-paths:/products/**,/auth/validate}")
+    private List<String> allowedPaths;
+
+    @Value("${multi-operation.timeout-millis:10000}")
+    private long timeoutMillis;
+
+    public MultiOperationResponse execute(MultiOperationRequest request,
+                                          HttpServletRequest servletRequest,
+                                          HttpServletResponse servletResponse) {
+        List<MultiOperationRequest.Operation> operations = request.getOperations();
+        if (operations.size() > maxOperations) {
+            throw new BadRequestException("Too many operations: " + operations.size() + " (max " + maxOperations + ")");
+        }
+        List<Prepared> prepared = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            prepared.add(prepare(i, operations.get(i), servletRequest));
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        List<MultiOperationResponse.Result> results = new ArrayList<>(Collections.nCopies(prepared.size(), null));
+        int next = 0;
+        while (next < prepared.size()) {
+            if (!prepared.get(next).read()) {
+                Prepared write = prepared.get(next);
+                results.set(next, dispatch(write, servletResponse));
+                next++;
+                continue;
+            }
+            int end = next;
+            while (end < prepared.size() && prepared.get(end).read()) {
+                end++;
+            }
+            runReads(prepared.subList(next, end), servletResponse, results, deadline);
+            next = end;
+        }
+        return MultiOperationResponse.builder()
+                .results(results)
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .build();
+    }
+
+    private void runReads(List<Prepared> reads, HttpServletResponse servletResponse,
+                          List<MultiOperationResponse.Result> results, long deadline) {
+        if (reads.size() == 1) {
+            Prepared read = reads.get(0);
+            results.set(read.index(), dispatch(read, servletResponse));
+            return;
+        }
+        List<Future<MultiOperationResponse.Result>> futures = new ArrayList<>(reads.size());
+        for (Prepared read : reads) {
+            try {
+                futures.add(multiOperationExecutor.submit(DelegatingSecurityContextCallable.create(
+                        () -> dispatch(read, servletResponse), SecurityContextHolder.getContext())));
+            } catch (TaskRejectedException e) {
+                futures.add(null);
+            }
+        }
+        for (int i = 0; i < reads.size(); i++) {
+            Prepared read = reads.get(i);
+            Future<MultiOperationResponse.Result> future = futures.get(i);
+            if (future == null) {
+                results.set(read.index(), failure(read, HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent batch operations"));
+                continue;
+            }
+            try {
+                results.set(read.index(), future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                results.set(read.index(), failure(read, HttpStatus.GATEWAY_TIMEOUT, "Operation timed out"));
+            } catch (ExecutionException e) {
+                log.error("Batch operation {} {} failed", read.method(), read.path(), e.getCause());
+                results.set(read.index(), failure(read, HttpStatus.INTERNAL_SERVER_ERROR, "Operation failed"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.set(read.index(), failure(read, HttpStatus.SERVICE_UNAVAILABLE, "Interrupted"));
+            }
+        }
+    }
+
+    private Prepared prepare(int index, MultiOperationRequest.Operation operation, HttpServletRequest servletRequest) {
+        String method = operation.getMethod().trim().toUpperCase();
+        if (!READ_METHODS.contains(method) && !WRITE_METHODS.contains(method)) {
+            throw new BadRequestException("Operation " + index + ": unsupported method " + operation.getMethod());
+        }
+        UriComponents uri = UriComponentsBuilder.fromUriString(operation.getPath()).build();
+        String path = uri.getPath();
+        if (path == null || !path.startsWith("/") || path.contains("..") || path.contains("//")
+                || uri.getHost() != null || allowedPaths.stream().noneMatch(pattern -> pathMatcher.match(pattern, path))) {
+            throw new BadRequestException("Operation " + index + ": path not allowed in a batch: " + operation.getPath());
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : Collections.list(servletRequest.getHeaderNames())) {
+            if (!NOT_INHERITED_HEADERS.contains(name.toLowerCase())) {
+                headers.put(name, Collections.list(servletRequest.getHeaders(name)));
+            }
+        }
+        if (operation.getHeaders() != null) {
+            for (Map.Entry<String, String> header : operation.getHeaders().entrySet()) {
+                headers.set(header.getKey(), header.getValue());
+            }
+        }
+        byte[] body = null;
+        if (operation.getBody() != null && !operation.getBody().isNull()) {
+            try {
+                body = objectMapper.writeValueAsBytes(operation.getBody());
+            } catch (IOException e) {
+                throw new BadRequestException("Operation " + index + ": unreadable body");
+            }
+            headers.setContentType(MediaType.APPLICATION_JSON);
+        }
+        MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>();
+        uri.getQueryParams().forEach((name, values) -> values.forEach(value ->
+                queryParams.add(decode(name), value == null ? "" : decode(value))));
+        SubRequest subRequest = new SubRequest(servletRequest, method, path, uri.getQuery(), queryParams, headers, body);
+        return new Prepared(index, operation.getId(), method, path, READ_METHODS.contains(method), subRequest);
+    }
+
+    private MultiOperationResponse.Result dispatch(Prepared operation, HttpServletResponse servletResponse) {
+        ConcurrencyLimitFilter.Permit permit = concurrencyLimitFilter.tryAcquire(operation.method(), operation.path());
+        if (permit == null) {
+            return failure(operation, HttpStatus.SERVICE_UNAVAILABLE, "Service is overloaded, retry later");
+        }
+        long start = System.nanoTime();
+        SubResponse response = new SubResponse(servletResponse);
+        try {
+            dispatcherServlet.getObject().service(operation.request(), response);
+        } catch (ServletException | IOException | RuntimeException e) {
+            log.error("Batch operation {} {} failed", operation.method(), operation.path(), e);
+            return failure(operation, HttpStatus.INTERNAL_SERVER_ERROR, "Operation failed");
+        } finally {
+            permit.release();
+        }
+        return MultiOperationResponse.Result.builder()
+                .id(operation.id())
+                .status(response.getStatus())
+                .body(body(response))
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .build();
+    }
+
+    private JsonNode body(SubResponse response) {
+        byte[] bytes = response.getBody();
+        if (bytes.length == 0) {
+            return response.getErrorMessage() == null ? null
+                    : objectMapper.valueToTree(new ApiResponse<>(false, response.getErrorMessage()));
+        }
+        String contentType = response.getContentType();
+        if (contentType != null && MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            try {
+                return objectMapper.readTree(bytes);
+            } catch (IOException e) {
+                log.warn("Batch operation returned malformed JSON: {}", e.getMessage());
+            }
+        }
+        return new TextNode(new String(bytes, Charset.forName(response.getCharacterEncoding())));
+    }
+
+    /** Query string decoding as the servlet container does it, '+' included. */
+    private static String decode(String value) {
+        return UriUtils.decode(value.replace('+', ' '), StandardCharsets.UTF_8);
+    }
+
+    private MultiOperationResponse.Result failure(Prepared operation, HttpStatus status, String message) {
+        return MultiOperationResponse.Result.builder()
+                .id(operation.id())
+                .status(status.value())
+                .body(objectMapper.valueToTree(new ApiResponse<>(false, message)))
+                .build();
+    }
+
+    private record Prepared(int index, String id, String method, String path, boolean read, SubRequest request) {
+    }
+}
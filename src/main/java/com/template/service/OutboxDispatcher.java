@@ -0,0 +1,336 @@
+package com.template.service;
+
+import com.template.entity.OutboxEvent;
+import com.template.entity.OutboxSequence;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers pending outbox events to every {@link OutboxEventSink}.
+ *
+ * <p>One instance at a time holds a lease and dispatches. Each aggregate's
+ * events are delivered in {@code sequence} order, and an event is held back
+ * until its predecessor has been delivered or parked; the highest delivered
+ * sequence per aggregate is kept in {@link OutboxSequence#getDispatched()}.
+ * A batch goes to the sinks in one call; if a sink
+ * throws, the batch is retried event by event and an aggregate stops at its
+ * first failed event, leaving the rest pending behind it. An event that keeps
+ * failing is parked after {@code outbox.dispatcher.max-attempts} so it cannot
+ * hold its aggregate back forever. When every event fails the sinks are
+ * treated as down: attempts are not counted and polling backs off.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxDispatcher {
+
+    private static final String LEASE_COLLECTION = "outbox_dispatcher_lease";
+    private static final String LEASE_ID = "dispatcher";
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectProvider<OutboxEventSink> sinks;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${outbox.dispatcher.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.dispatcher.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.dispatcher.max-batches-per-poll:20}")
+    private int maxBatchesPerPoll;
+
+    @Value("${outbox.dispatcher.lease-millis:15000}")
+    private long leaseMillis;
+
+    @Value("${outbox.dispatcher.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.dispatcher.max-backoff-millis:60000}")
+    private long maxBackoffMillis;
+
+    @Value("${outbox.dispatcher.gap-timeout-millis:10000}")
+    private long gapTimeoutMillis;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile boolean leader;
+    private long backoffMillis;
+    private long retryAfterMillis;
+
+    private Timer dispatchLag;
+    private DistributionSummary batchSizes;
+    private Counter delivered;
+    private Counter retried;
+    private Counter parked;
+    private Counter gapsSkipped;
+
+    @PostConstruct
+    void initMetrics() {
+        dispatchLag = Timer.builder("outbox.dispatch.lag")
+                .description("Time from an event being written to it being delivered")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("outbox.dispatch.batch.size")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        delivered = meterRegistry.counter("outbox.dispatch.events", "outcome", "delivered");
+        retried = meterRegistry.counter("outbox.dispatch.events", "outcome", "retried");
+        parked = meterRegistry.counter("outbox.dispatch.events", "outcome", "parked");
+        gapsSkipped = meterRegistry.counter("outbox.dispatch.gaps.skipped");
+        Gauge.builder("outbox.dispatch.leader", this, d -> d.leader ? 1 : 0).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.dispatcher.poll-interval-millis:500}")
+    public void dispatch() {
+        if (!enabled || System.currentTimeMillis() < retryAfterMillis) {
+            return;
+        }
+        try {
+            if (!acquireLease()) {
+                return;
+            }
+            // Keep draining while batches come back full and clean; after a failure
+            // the blocked events would be refetched, so wait for the next poll.
+            for (int i = 0; i < maxBatchesPerPoll && dispatchBatch(); i++) {
+                if (i % 5 == 4 && !acquireLease()) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Outbox dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    /** Takes or renews the dispatcher lease; a conflicting upsert means another instance holds it. */
+    private boolean acquireLease() {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("_id").is(LEASE_ID)
+                .orOperator(Criteria.where("owner").is(instanceId), Criteria.where("expiresAt").lt(now)));
+        Update update = new Update()
+                .set("owner", instanceId)
+                .set("expiresAt", now.plusMillis(leaseMillis));
+        try {
+            mongoTemplate.upsert(query, update, LEASE_COLLECTION);
+            if (!leader) {
+                log.info("Outbox dispatcher lease acquired by {}", instanceId);
+            }
+            leader = true;
+        } catch (DuplicateKeyException e) {
+            leader = false;
+        }
+        return leader;
+    }
+
+    private boolean dispatchBatch() {
+        Query query = Query.query(Criteria.where("status").is(OutboxEvent.Status.PENDING))
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(batchSize);
+        List<OutboxEvent> batch = mongoTemplate.find(query, OutboxEvent.class);
+        List<OutboxEvent> ready = inSequence(batch);
+        if (ready.isEmpty()) {
+            return false;
+        }
+        batchSizes.record(ready.size());
+
+        List<OutboxEvent> done;
+        try {
+            deliverToSinks(ready);
+            done = ready;
+            backoffMillis = 0;
+        } catch (RuntimeException e) {
+            log.warn("Outbox batch of {} failed ({}); retrying events individually", ready.size(), e.getMessage());
+            done = deliverIndividually(ready);
+        }
+        markDispatched(done);
+        Set<String> doneIds = done.stream().map(OutboxEvent::getId).collect(Collectors.toSet());
+        return batch.size() == batchSize && batch.stream().allMatch(event -> doneIds.contains(event.getId()));
+    }
+
+    /**
+     * Puts each aggregate's events in sequence order and drops those whose
+     * predecessor is still outstanding. Events written before sequences
+     * existed (sequence 0) are delivered as read.
+     */
+    private List<OutboxEvent> inSequence(List<OutboxEvent> batch) {
+        List<OutboxEvent> ready = new ArrayList<>();
+        Map<String, List<OutboxEvent>> byAggregate = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            if (event.getSequence() == 0) {
+                ready.add(event);
+            } else {
+                byAggregate.computeIfAbsent(aggregateKey(event), key -> new ArrayList<>()).add(event);
+            }
+        }
+        if (byAggregate.isEmpty()) {
+            return ready;
+        }
+        Map<String, Long> dispatched = new HashMap<>();
+        mongoTemplate.find(Query.query(Criteria.where("_id").in(byAggregate.keySet())), OutboxSequence.class)
+                .forEach(counter -> dispatched.put(counter.getId(), counter.getDispatched()));
+
+        byAggregate.forEach((aggregate, events) -> {
+            events.sort(Comparator.comparingLong(OutboxEvent::getSequence));
+            long next = dispatched.getOrDefault(aggregate, 0L) + 1;
+            for (OutboxEvent event : events) {
+                if (event.getSequence() > next) {
+                    next = fillGap(event, next, ready);
+                    if (event.getSequence() > next) {
+                        break;
+                    }
+                }
+                // Below next: delivered before, but the status update was lost; deliver again
+                ready.add(event);
+                next = Math.max(next, event.getSequence() + 1);
+            }
+        });
+        return ready;
+    }
+
+    /**
+     * Looks up the events between the last delivered one and {@code event}:
+     * pending ones outside the batch are added to {@code ready}, delivered or
+     * parked ones are stepped over. Returns the first sequence still missing,
+     * or {@code event}'s own once the gap is closed. A sequence that never
+     * shows up (its event was lost to a failure between the counter update and
+     * the insert without a transaction) is given up on after
+     * {@code outbox.dispatcher.gap-timeout-millis}.
+     */
+    private long fillGap(OutboxEvent event, long next, List<OutboxEvent> ready) {
+        Query query = Query.query(Criteria.where("aggregateType").is(event.getAggregateType())
+                        .and("aggregateId").is(event.getAggregateId())
+                        .and("sequence").gte(next).lt(event.getSequence()))
+                .with(Sort.by(Sort.Direction.ASC, "sequence"))
+                .limit(batchSize);
+        List<OutboxEvent> earlier = mongoTemplate.find(query, OutboxEvent.class);
+        for (OutboxEvent previous : earlier) {
+            if (previous.getSequence() != next) {
+                break;
+            }
+            if (previous.getStatus() == OutboxEvent.Status.PENDING) {
+                ready.add(previous);
+            }
+            next++;
+        }
+        boolean missing = next < event.getSequence() && earlier.size() < batchSize;
+        if (missing && event.getCreatedAt().isBefore(Instant.now().minusMillis(gapTimeoutMillis))) {
+            gapsSkipped.increment();
+            log.warn("Outbox sequence {} of {} never appeared; delivering {} without it", next,
+                    aggregateKey(event), event.getId());
+            return event.getSequence();
+        }
+        return next;
+    }
+
+    private static String aggregateKey(OutboxEvent event) {
+        return OutboxSequence.key(event.getAggregateType(), event.getAggregateId());
+    }
+
+    private List<OutboxEvent> deliverIndividually(List<OutboxEvent> batch) {
+        List<OutboxEvent> done = new ArrayList<>();
+        List<OutboxEvent> failed = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        Set<String> blocked = new HashSet<>();
+        for (OutboxEvent event : batch) {
+            String aggregate = aggregateKey(event);
+            if (blocked.contains(aggregate)) {
+                continue;
+            }
+            try {
+                deliverToSinks(List.of(event));
+                done.add(event);
+            } catch (RuntimeException e) {
+                blocked.add(aggregate);
+                failed.add(event);
+                errors.add(e.getMessage());
+            }
+        }
+
+        if (done.isEmpty()) {
+            backoffMillis = backoffMillis == 0 ? 1000 : Math.min(backoffMillis * 2, maxBackoffMillis);
+            retryAfterMillis = System.currentTimeMillis() + backoffMillis;
+            log.warn("All outbox sinks failing; backing off {} ms", backoffMillis);
+            return done;
+        }
+        backoffMillis = 0;
+        for (int i = 0; i < failed.size(); i++) {
+            recordFailure(failed.get(i), errors.get(i));
+        }
+        return done;
+    }
+
+    private void deliverToSinks(List<OutboxEvent> events) {
+        for (OutboxEventSink sink : sinks) {
+            sink.deliver(events);
+        }
+    }
+
+    private void recordFailure(OutboxEvent event, String error) {
+        boolean park = event.getAttempts() + 1 >= maxAttempts;
+        Update update = new Update().inc("attempts", 1).set("lastError", error);
+        if (park) {
+            update.set("status", OutboxEvent.Status.PARKED);
+            parked.increment();
+            log.error("Parking outbox event {} ({} {}) after {} attempts: {}", event.getId(),
+                    event.getEventType(), event.getAggregateId(), event.getAttempts() + 1, error);
+        } else {
+            retried.increment();
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(event.getId())), update, OutboxEvent.class);
+    }
+
+    private void markDispatched(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<String> ids = new ArrayList<>(events.size());
+        Map<String, Long> highest = new HashMap<>();
+        for (OutboxEvent event : events) {
+            ids.add(event.getId());
+            dispatchLag.record(Duration.between(event.getCreatedAt(), now));
+            if (event.getSequence() > 0) {
+                highest.merge(aggregateKey(event), event.getSequence(), Math::max);
+            }
+        }
+        mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)),
+                new Update().set("status", OutboxEvent.Status.DISPATCHED).set("dispatchedAt", now),
+                OutboxEvent.class);
+        if (!highest.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OutboxSequence.class);
+            highest.forEach((aggregate, sequence) -> bulk.updateOne(
+                    Query.query(Criteria.where("_id").is(aggregate)), new Update().max("dispatched", sequence)));
+            bulk.execute();
+        }
+        delivered.increment(events.size());
+    }
+}
@@ -0,0 +1,18 @@
+package com.template.service;
+
+import com.template.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * In-process consumer of outbox events (search indexing, analytics, remote
+ * caches). Beans of this type are fed by {@link OutboxDispatcher}.
+ *
+ * <p>Delivery is at least once: a batch is redelivered when any sink throws,
+ * so implementations should deduplicate on {@link OutboxEvent#getId()}.
+ * Events of one aggregate arrive in the order they were written.
+ */
+public interface OutboxEventSink {
+
+    void deliver(List<OutboxEvent> events);
+}
@@ -0,0 +1,180 @@
+package com.template.service;
+
+import com.mongodb.MongoException;
+import com.template.entity.OutboxEvent;
+import com.template.entity.OutboxSequence;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Records domain events in the outbox as part of the caller's write.
+ *
+ * <p>{@link #inTransaction} runs the entity write and {@link #append} in one
+ * Mongo transaction, so an event exists if and only if its change committed.
+ * A standalone mongod has no transactions; there the work runs without one
+ * (logged once) and a crash between the two inserts can lose the event.
+ *
+ * <p>Each event gets the next sequence number of its aggregate from an
+ * {@link OutboxSequence} counter incremented in the same transaction. Two
+ * transactions changing one aggregate conflict on that counter, so the
+ * sequence order is the commit order, which the dispatcher delivers in. This
+ * costs one {@code findAndModify} per aggregate on top of the event insert:
+ * client-generated ids and timestamps do not follow commit order across
+ * instances, so there is nothing cheaper to order by.
+ *
+ * <p>Concurrent writes to one aggregate abort all but one transaction with a
+ * write conflict ({@code TransientTransactionError}); those are retried up to
+ * {@code outbox.transaction-max-attempts} times, so {@code work} must be safe
+ * to run again.
+ */
+@Service
+@Slf4j
+public class OutboxService {
+
+    private final MongoTemplate mongoTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.transaction-max-attempts:3}")
+    private int transactionMaxAttempts;
+
+    private volatile Boolean transactionsSupported;
+
+    public OutboxService(MongoTemplate mongoTemplate, MongoTransactionManager transactionManager) {
+        this.mongoTemplate = mongoTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** Collections cannot be created inside a transaction before MongoDB 4.4. */
+    @PostConstruct
+    void createCollections() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            for (Class<?> type : List.of(OutboxEvent.class, OutboxSequence.class)) {
+                if (!mongoTemplate.collectionExists(type)) {
+                    mongoTemplate.createCollection(type);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not create outbox collections: {}", e.getMessage());
+        }
+    }
+
+    public <T> T inTransaction(Supplier<T> work) {
+        if (!enabled || !transactionsSupported()) {
+            return work.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (RuntimeException e) {
+                if (attempt >= transactionMaxAttempts || !isTransient(e)) {
+                    throw e;
+                }
+                log.debug("Retrying transaction after transient error (attempt {}): {}", attempt, e.getMessage());
+                backOff(attempt);
+            }
+        }
+    }
+
+    public void inTransaction(Runnable work) {
+        inTransaction(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public void append(String aggregateType, String aggregateId, String eventType, Object payload) {
+        append(List.of(event(aggregateType, aggregateId, eventType, payload)));
+    }
+
+    /** Numbers the events per aggregate, in list order, and writes them with a single insert. */
+    public void append(List<OutboxEvent> events) {
+        if (!enabled || events.isEmpty()) {
+            return;
+        }
+        Map<String, List<OutboxEvent>> byAggregate = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            byAggregate.computeIfAbsent(OutboxSequence.key(event.getAggregateType(), event.getAggregateId()),
+                    key -> new ArrayList<>()).add(event);
+        }
+        byAggregate.forEach((key, aggregateEvents) -> {
+            OutboxSequence counter = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(key)),
+                    new Update().inc("sequence", aggregateEvents.size()).setOnInsert("dispatched", 0L),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    OutboxSequence.class);
+            long sequence = counter.getSequence() - aggregateEvents.size();
+            for (OutboxEvent event : aggregateEvents) {
+                event.setSequence(++sequence);
+            }
+        });
+        mongoTemplate.insert(events, OutboxEvent.class);
+    }
+
+    public static OutboxEvent event(String aggregateType, String aggregateId, String eventType, Object payload) {
+        return OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .payload(payload)
+                .status(OutboxEvent.Status.PENDING)
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    private static boolean isTransient(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongo
+                    && mongo.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** A few jittered milliseconds, so the retries of conflicting writers do not collide again. */
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 10L * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying a transaction", e);
+        }
+    }
+
+    private boolean transactionsSupported() {
+        Boolean supported = transactionsSupported;
+        if (supported == null) {
+            Document hello = mongoTemplate.executeCommand(new Document("hello", 1));
+            supported = hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+            if (!supported) {
+                log.warn("MongoDB is standalone; outbox events are written without a transaction");
+            }
+            transactionsSupported = supported;
+        }
+        return supported;
+    }
+}
@@ -0,0 +1,70 @@
+package com.template.service;
+
+import com.template.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Re-encodes a user's password with the current encoder settings after they
+ * log in with a hash that is out of date. Runs on
+ * {@code passwordRehashExecutor} so the login response does not wait for the
+ * hash. The update only applies while the stored hash is still the one that
+ * was verified, so a password change in the meantime wins. A rehash that is
+ * dropped because the queue is full simply happens on a later login.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordRehashService {
+
+    private final MongoTemplate mongoTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor passwordRehashExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public void rehash(String email, String storedHash, String rawPassword) {
+        if (!inFlight.add(email)) {
+            return;
+        }
+        try {
+            passwordRehashExecutor.execute(() -> {
+                try {
+                    upgrade(email, storedHash, rawPassword);
+                } catch (RuntimeException e) {
+                    meterRegistry.counter("password.rehash", "outcome", "failed").increment();
+                    log.warn("Rehashing password for {} failed: {}", email, e.getMessage());
+                } finally {
+                    inFlight.remove(email);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            inFlight.remove(email);
+            meterRegistry.counter("password.rehash", "outcome", "rejected").increment();
+        }
+    }
+
+    private void upgrade(String email, String storedHash, String rawPassword) {
+        String newHash = passwordEncoder.encode(rawPassword);
+        long modified = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("email").is(email).and("password").is(storedHash)),
+                new Update().set("password", newHash).set("updatedAt", LocalDateTime.now()),
+                User.class).getModifiedCount();
+        meterRegistry.counter("password.rehash", "outcome", modified > 0 ? "upgraded" : "stale").increment();
+        log.debug("Password hash for {} {}", email, modified > 0 ? "upgraded" : "changed meanwhile; not upgraded");
+    }
+}
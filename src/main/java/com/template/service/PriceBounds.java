@@ -0,0 +1,34 @@
+package com.template.service;
+
+import com.template.exception.BadRequestException;
+
+import java.math.BigDecimal;
+
+/**
+ * The range of prices the catalog stores: at most {@link #INTEGER_DIGITS}
+ * digits before the decimal point and {@link #FRACTION_DIGITS} after it, the
+ * same bound {@code ProductDTO} validates on writes. User-supplied price
+ * filters are checked against it before they reach Mongo, where the
+ * Decimal128 conversion would fail on out-of-range values with a 500.
+ */
+final class PriceBounds {
+
+    static final int INTEGER_DIGITS = 14;
+    static final int FRACTION_DIGITS = 4;
+
+    private PriceBounds() {
+    }
+
+    /** {@code price} unchanged, or a 400 naming {@code name} when it is out of range. Trailing zeros do not count. */
+    static BigDecimal check(String name, BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        BigDecimal stripped = price.stripTrailingZeros();
+        if (stripped.precision() - stripped.scale() > INTEGER_DIGITS || stripped.scale() > FRACTION_DIGITS) {
+            throw new BadRequestException(name + " must have at most " + INTEGER_DIGITS + " digits before and "
+                    + FRACTION_DIGITS + " after the decimal point");
+        }
+        return price;
+    }
+}
@@ -0,0 +1,109 @@
+package com.template.service;
+
+import com.template.dto.ProductDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of product DTOs by id, invalidated by local writes and by
+ * change-stream events from other instances.
+ */
+@Component
+public class ProductDTOCache implements CacheInvalidationListener {
+
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    @Value("${product.dto-cache.max-entries:10000}")
+    private int maxEntries;
+
+    /**
+     * Returns the cached DTOs for {@code ids} in order, loading the misses in one call.
+     * Each miss is held by a placeholder while it loads; an eviction in the meantime
+     * removes the placeholder, so the loaded (possibly stale) DTO is returned but not cached.
+     */
+    public List<ProductDTO> getAll(List<String> ids, Function<List<String>, List<ProductDTO>> loader) {
+        Map<String, ProductDTO> found = new HashMap<>();
+        Set<String> misses = new LinkedHashSet<>();
+        for (String id : ids) {
+            Entry entry = cache.get(id);
+            if (entry != null && entry.dto != null) {
+                found.put(id, entry.dto);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            load(misses, loader, found);
+        }
+        List<ProductDTO> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            ProductDTO dto = found.get(id);
+            if (dto != null) {
+                result.add(dto);
+            }
+        }
+        return result;
+    }
+
+    private void load(Set<String> misses, Function<List<String>, List<ProductDTO>> loader, Map<String, ProductDTO> found) {
+        if (cache.size() + misses.size() > maxEntries) {
+            cache.clear();
+        }
+        Map<String, Entry> placeholders = new HashMap<>();
+        for (String id : misses) {
+            Entry placeholder = new Entry(null);
+            // Another caller already loading this id keeps its placeholder; ours is then not cached
+            if (cache.putIfAbsent(id, placeholder) == null) {
+                placeholders.put(id, placeholder);
+            }
+        }
+        try {
+            for (ProductDTO dto : loader.apply(new ArrayList<>(misses))) {
+                found.put(dto.getId(), dto);
+                Entry placeholder = placeholders.remove(dto.getId());
+                if (placeholder != null) {
+                    cache.replace(dto.getId(), placeholder, new Entry(dto));
+                }
+            }
+        } finally {
+            placeholders.forEach(cache::remove);
+        }
+    }
+
+    public void evict(String id) {
+        cache.remove(id);
+    }
+
+    @Override
+    public void invalidate(String collection, String id) {
+        if ("products".equals(collection)) {
+            cache.remove(id);
+        }
+    }
+
+    @Override
+    public void invalidateAll(String collection) {
+        if ("products".equals(collection)) {
+            cache.clear();
+        }
+    }
+
+    /** Compared by identity, so a placeholder is only ever replaced by the load that put it. */
+    private static final class Entry {
+
+        private final ProductDTO dto;
+
+        private Entry(ProductDTO dto) {
+            this.dto = dto;
+        }
+    }
+}
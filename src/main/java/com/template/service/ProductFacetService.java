@@ -0,0 +1,220 @@
+package com.template.service;
+
+import com.template.dto.ProductFacetsDTO;
+import com.template.entity.Product;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product listings with facet counts (category, stock, price buckets). A miss
+ * computes the page and all facets in one {@code $facet} aggregation; facets
+ * are then cached briefly per query so later pages of the same listing need
+ * only the plain page query. Any product write clears the cache.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductFacetService implements CacheInvalidationListener {
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${product.facets.cache-ttl-millis:30000}")
+    private long cacheTtlMillis;
+
+    @Value("${product.facets.cache-max-entries:1000}")
+    private int cacheMaxEntries;
+
+    @Value("${product.facets.price-boundaries:0,10,25,50,100,250,500,1000}")
+    private List<BigDecimal> priceBoundaries;
+
+    private final Map<FacetQuery, CachedFacets> cache = new ConcurrentHashMap<>();
+    private Counter cacheHits;
+    private Counter cacheMisses;
+
+    @PostConstruct
+    void initMetrics() {
+        cacheHits = meterRegistry.counter("product.facets.cache", "result", "hit");
+        cacheMisses = meterRegistry.counter("product.facets.cache", "result", "miss");
+    }
+
+    public FacetedPage query(FacetQuery facetQuery, Pageable pageable) {
+        long now = System.nanoTime();
+        CachedFacets cached = cache.get(facetQuery);
+        if (cached != null && cached.expiresAt() - now > 0) {
+            cacheHits.increment();
+            Query query = Query.query(facetQuery.criteria()).with(pageable);
+            List<Product> content = mongoTemplate.find(query, Product.class);
+            return new FacetedPage(new PageImpl<>(content, pageable, cached.facets().getTotal()), cached.facets());
+        }
+
+        cacheMisses.increment();
+        Document result = mongoTemplate.aggregate(
+                Aggregation.newAggregation(Aggregation.match(facetQuery.criteria()), facets(pageable)),
+                Product.class, Document.class).getUniqueMappedResult();
+
+        ProductFacetsDTO facets = readFacets(result);
+        List<Product> content = new ArrayList<>();
+        for (Document document : result.getList("results", Document.class)) {
+            content.add(mongoTemplate.getConverter().read(Product.class, document));
+        }
+        if (cache.size() >= cacheMaxEntries) {
+            cache.clear();
+        }
+        cache.put(facetQuery, new CachedFacets(facets, now + TimeUnit.MILLISECONDS.toNanos(cacheTtlMillis)));
+        return new FacetedPage(new PageImpl<>(content, pageable, facets.getTotal()), facets);
+    }
+
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    @Override
+    public void invalidate(String collection, String id) {
+        invalidateAll(collection);
+    }
+
+    @Override
+    public void invalidateAll(String collection) {
+        if ("products".equals(collection)) {
+            cache.clear();
+        }
+    }
+
+    private FacetOperation facets(Pageable pageable) {
+        List<AggregationOperation> page = new ArrayList<>();
+        if (pageable.getSort().isSorted()) {
+            page.add(Aggregation.sort(pageable.getSort()));
+        }
+        page.add(Aggregation.skip(pageable.getOffset()));
+        page.add(Aggregation.limit(pageable.getPageSize()));
+
+        return Aggregation.facet(page.toArray(new AggregationOperation[0])).as("results")
+                .and(Aggregation.count().as("count")).as("total")
+                .and(Aggregation.sortByCount("category")).as("categories")
+                .and(Aggregation.project()
+                                .and(ComparisonOperators.valueOf("quantity").greaterThanValue(0)).as("inStock"),
+                        Aggregation.group("inStock").count().as("count")).as("stock")
+                .and(Aggregation.bucket(ConvertOperators.valueOf("price").convertToDecimal())
+                        .withBoundaries(priceBoundaries.toArray())
+                        .withDefaultBucket("other")
+                        .andOutputCount().as("count")).as("prices");
+    }
+
+    private ProductFacetsDTO readFacets(Document result) {
+        List<Document> total = result.getList("total", Document.class);
+
+        Map<String, Long> categories = new LinkedHashMap<>();
+        for (Document category : result.getList("categories", Document.class)) {
+            categories.put(String.valueOf(category.get("_id")), count(category));
+        }
+
+        long inStock = 0;
+        long outOfStock = 0;
+        for (Document stock : result.getList("stock", Document.class)) {
+            if (Boolean.TRUE.equals(stock.get("_id"))) {
+                inStock = count(stock);
+            } else {
+                outOfStock += count(stock);
+            }
+        }
+
+        Map<Object, Long> bucketCounts = new LinkedHashMap<>();
+        for (Document bucket : result.getList("prices", Document.class)) {
+            Object id = bucket.get("_id");
+            bucketCounts.put(id instanceof Number number ? new BigDecimal(number.toString()) : id, count(bucket));
+        }
+        List<ProductFacetsDTO.PriceBucket> priceBuckets = new ArrayList<>();
+        for (int i = 0; i < priceBoundaries.size() - 1; i++) {
+            BigDecimal min = priceBoundaries.get(i);
+            priceBuckets.add(new ProductFacetsDTO.PriceBucket(min, priceBoundaries.get(i + 1),
+                    findBucket(bucketCounts, min)));
+        }
+        priceBuckets.add(new ProductFacetsDTO.PriceBucket(priceBoundaries.get(priceBoundaries.size() - 1), null,
+                bucketCounts.getOrDefault("other", 0L)));
+
+        return ProductFacetsDTO.builder()
+                .total(total.isEmpty() ? 0 : count(total.get(0)))
+                .categories(categories)
+                .inStock(inStock)
+                .outOfStock(outOfStock)
+                .priceBuckets(priceBuckets)
+                .build();
+    }
+
+    private static long findBucket(Map<Object, Long> bucketCounts, BigDecimal lowerBound) {
+        for (Map.Entry<Object, Long> entry : bucketCounts.entrySet()) {
+            if (entry.getKey() instanceof BigDecimal key && key.compareTo(lowerBound) == 0) {
+                return entry.getValue();
+            }
+        }
+        return 0L;
+    }
+
+    private static long count(Document document) {
+        return ((Number) document.get("count")).longValue();
+    }
+
+    public record FacetedPage(Page<Product> page, ProductFacetsDTO facets) {
+    }
+
+    private record CachedFacets(ProductFacetsDTO facets, long expiresAt) {
+    }
+
+    /**
+     * The listing a facet request refers to; also the facet cache key.
+     */
+    public record FacetQuery(String kind, String value) {
+
+        public static FacetQuery all() {
+            return new FacetQuery("all", null);
+        }
+
+        public static FacetQuery nameMatching(String name) {
+            return new FacetQuery("name", name);
+        }
+
+        public static FacetQuery category(String category) {
+            return new FacetQuery("category", category);
+        }
+
+        public static FacetQuery inStock() {
+            return new FacetQuery("in-stock", null);
+        }
+
+        Criteria criteria() {
+            Criteria criteria = Criteria.where("isActive").is(true);
+            return switch (kind) {
+                case "name" -> criteria.and("name").regex(value, "i");
+                case "category" -> criteria.and("category").is(value);
+                case "in-stock" -> criteria.and("quantity").gt(0);
+                default -> criteria;
+            };
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.template.service;
+
+import com.template.entity.Product;
+import com.template.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles the {@code /products/query} filter grammar into a Mongo query and
+ * plans it against the collection's indexes.
+ * <p>
+ * Filters are {@code field:op:value} ({@code op} one of eq, in, gt, gte, lt,
+ * lte; {@code in} values separated by {@code |}); sorts are
+ * {@code field:asc|desc}. A query shape (fields and operators, not values) is
+ * index-served when some index starts with all equality fields, continues with
+ * the sort fields in order and direction (or all reversed), and contains every
+ * range field after that. Plans are cached per shape.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductQueryService {
+
+    private static final Map<String, FieldType> FIELDS = Map.of(
+            "category", FieldType.STRING,
+            "sku", FieldType.STRING,
+            "price", FieldType.DECIMAL,
+            "quantity", FieldType.INTEGER,
+            "createdAt", FieldType.DATE_TIME);
+    private static final Set<String> SORTABLE = Set.of("price", "quantity", "createdAt");
+    private static final Set<String> RANGE_OPS = Set.of("gt", "gte", "lt", "lte");
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${product.query.max-filters:8}")
+    private int maxFilters;
+
+    @Value("${product.query.plan-cache-size:256}")
+    private int planCacheSize;
+
+    @Value("${product.query.reject-unindexed:true}")
+    private boolean rejectUnindexed;
+
+    private volatile List<IndexInfo> indexes;
+    private Map<String, Plan> planCache;
+
+    public Result query(List<String> filters, List<String> sorts, Pageable pageable) {
+        List<Filter> parsedFilters = parseFilters(filters);
+        List<Sort.Order> orders = parseSorts(sorts);
+        // Validated on every request: the shape collapses repeated operators, so a cached plan says nothing about them
+        FilterFields fields = fieldsOf(parsedFilters);
+        String shape = shapeOf(parsedFilters, orders);
+        Plan plan = plan(shape, fields, orders);
+
+        if (plan.index() == null) {
+            if (rejectUnindexed) {
+                throw new BadRequestException("Query is not served by any index: " + shape);
+            }
+            log.warn("Running unindexed product query: {}", shape);
+        }
+
+        Query query = Query.query(compile(parsedFilters)).with(pageable);
+        if (!orders.isEmpty()) {
+            query.with(Sort.by(orders));
+        }
+        if (plan.index() != null) {
+            query.withHint(plan.index());
+        }
+        long total = mongoTemplate.count(Query.of(query).limit(0).skip(0), Product.class);
+        List<Product> products = mongoTemplate.find(query, Product.class);
+        return new Result(new PageImpl<>(products, pageable, total), shape, plan.index());
+    }
+
+    @Scheduled(fixedDelayString = "${product.query.index-refresh-interval-millis:600000}")
+    public void refreshIndexes() {
+        indexes = null;
+        synchronized (this) {
+            if (planCache != null) {
+                planCache.clear();
+            }
+        }
+    }
+
+    private List<Filter> parseFilters(List<String> raw) {
+        List<Filter> filters = new ArrayList<>();
+        if (raw == null) {
+            return filters;
+        }
+        if (raw.size() > maxFilters) {
+            throw new BadRequestException("Too many filters: " + raw.size() + " (max " + maxFilters + ")");
+        }
+        for (String expression : raw) {
+            String[] parts = expression.split(":", 3);
+            if (parts.length != 3) {
+                throw new BadRequestException("Filter must be field:op:value, got: " + expression);
+            }
+            String field = parts[0];
+            String op = parts[1].toLowerCase(Locale.ROOT);
+            FieldType type = FIELDS.get(field);
+            if (type == null) {
+                throw new BadRequestException("Unknown filter field: " + field + " (allowed " + FIELDS.keySet() + ")");
+            }
+            if (!op.equals("eq") && !op.equals("in") && !RANGE_OPS.contains(op)) {
+                throw new BadRequestException("Unknown filter operator: " + op);
+            }
+            if (type == FieldType.STRING && RANGE_OPS.contains(op)) {
+                throw new BadRequestException("Field " + field + " supports only eq and in");
+            }
+            Object value = op.equals("in")
+                    ? Arrays.stream(parts[2].split("\\|")).map(v -> type.parse(field, v)).toList()
+                    : type.parse(field, parts[2]);
+            filters.add(new Filter(field, op, value));
+        }
+        return filters;
+    }
+
+    private List<Sort.Order> parseSorts(List<String> raw) {
+        List<Sort.Order> orders = new ArrayList<>();
+        if (raw == null) {
+            return orders;
+        }
+        for (String expression : raw) {
+            String[] parts = expression.split(":", 2);
+            if (!SORTABLE.contains(parts[0])) {
+                throw new BadRequestException("Cannot sort by: " + parts[0] + " (allowed " + SORTABLE + ")");
+            }
+            String direction = parts.length == 2 ? parts[1].toLowerCase(Locale.ROOT) : "asc";
+            if (!direction.equals("asc") && !direction.equals("desc")) {
+                throw new BadRequestException("Sort direction must be asc or desc, got: " + direction);
+            }
+            orders.add(direction.equals("asc") ? Sort.Order.asc(parts[0]) : Sort.Order.desc(parts[0]));
+        }
+        return orders;
+    }
+
+    private static String shapeOf(List<Filter> filters, List<Sort.Order> orders) {
+        Map<String, Set<String>> opsByField = new TreeMap<>();
+        for (Filter filter : filters) {
+            opsByField.computeIfAbsent(filter.field(), f -> new TreeSet<>()).add(filter.op());
+        }
+        String filterShape = opsByField.entrySet().stream()
+                .map(e -> e.getKey() + ":" + String.join("+", e.getValue()))
+                .collect(Collectors.joining(","));
+        String sortShape = orders.stream()
+                .map(o -> o.getProperty() + ":" + o.getDirection().name().toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining(","));
+        return "filter[" + filterShape + "] sort[" + sortShape + "]";
+    }
+
+    private static FilterFields fieldsOf(List<Filter> filters) {
+        Set<String> equality = new TreeSet<>();
+        Set<String> range = new TreeSet<>();
+        Set<String> rangeOps = new TreeSet<>();
+        equality.add("isActive");
+        for (Filter filter : filters) {
+            if (RANGE_OPS.contains(filter.op())) {
+                if (!rangeOps.add(filter.field() + ":" + filter.op())) {
+                    throw new BadRequestException("Field " + filter.field() + " has more than one " + filter.op() + " filter");
+                }
+                range.add(filter.field());
+            } else if (!equality.add(filter.field())) {
+                throw new BadRequestException("Field " + filter.field() + " has more than one equality filter");
+            }
+        }
+        for (String field : range) {
+            if (equality.contains(field)) {
+                throw new BadRequestException("Field " + field + " has both equality and range filters");
+            }
+        }
+        return new FilterFields(equality, range);
+    }
+
+    private Plan plan(String shape, FilterFields fields, List<Sort.Order> orders) {
+        synchronized (this) {
+            if (planCache == null) {
+                planCache = new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Plan> eldest) {
+                        return size() > planCacheSize;
+                    }
+                };
+            }
+            Plan cached = planCache.get(shape);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        String index = null;
+        for (IndexInfo info : indexes()) {
+            if (serves(info.getIndexFields(), fields.equality(), orders, fields.range())) {
+                index = info.getName();
+                break;
+            }
+        }
+        Plan plan = new Plan(index);
+        synchronized (this) {
+            planCache.put(shape, plan);
+        }
+        log.debug("Planned product query {} -> {}", shape, index == null ? "COLLSCAN" : index);
+        return plan;
+    }
+
+    static boolean serves(List<IndexField> keys, Set<String> equality, List<Sort.Order> orders, Set<String> range) {
+        int position = equality.size();
+        if (keys.size() < position) {
+            return false;
+        }
+        Set<String> prefix = keys.subList(0, position).stream().map(IndexField::getKey).collect(Collectors.toSet());
+        if (!prefix.equals(equality)) {
+            return false;
+        }
+
+        Boolean reversed = null;
+        for (Sort.Order order : orders) {
+            if (position >= keys.size() || !keys.get(position).getKey().equals(order.getProperty())) {
+                return false;
+            }
+            boolean indexAscending = keys.get(position).getDirection() != Sort.Direction.DESC;
+            boolean mismatch = indexAscending != order.isAscending();
+            if (reversed != null && reversed != mismatch) {
+                return false;
+            }
+            reversed = mismatch;
+            position++;
+        }
+
+        Set<String> remaining = keys.subList(position, keys.size()).stream()
+                .map(IndexField::getKey)
+                .collect(Collectors.toSet());
+        // The first sort key directly follows the equality prefix, so a range on it bounds the scan as well
+        String firstSortKey = orders.isEmpty() ? null : orders.get(0).getProperty();
+        return range.stream().allMatch(field -> remaining.contains(field) || field.equals(firstSortKey));
+    }
+
+    private List<IndexInfo> indexes() {
+        List<IndexInfo> current = indexes;
+        if (current == null) {
+            current = mongoTemplate.indexOps(Product.class).getIndexInfo();
+            indexes = current;
+        }
+        return current;
+    }
+
+    private static Criteria compile(List<Filter> filters) {
+        Criteria criteria = Criteria.where("isActive").is(true);
+        Map<String, Criteria> byField = new LinkedHashMap<>();
+        for (Filter filter : filters) {
+            Criteria field = byField.computeIfAbsent(filter.field(), criteria::and);
+            switch (filter.op()) {
+                case "eq" -> field.is(filter.value());
+                case "in" -> field.in((List<?>) filter.value());
+                case "gt" -> field.gt(filter.value());
+                case "gte" -> field.gte(filter.value());
+                case "lt" -> field.lt(filter.value());
+                case "lte" -> field.lte(filter.value());
+                default -> throw new BadRequestException("Unknown filter operator: " + filter.op());
+            }
+        }
+        return criteria;
+    }
+
+    public record Result(Page<Product> page, String shape, String index) {
+    }
+
+    private record Filter(String field, String op, Object value) {
+    }
+
+    private record FilterFields(Set<String> equality, Set<String> range) {
+    }
+
+    private record Plan(String index) {
+    }
+
+    private enum FieldType {
+        STRING(v -> v),
+        DECIMAL(BigDecimal::new),
+        INTEGER(Integer::valueOf),
+        DATE_TIME(LocalDateTime::parse);
+
+        private final Function<String, Object> parser;
+
+        FieldType(Function<String, Object> parser) {
+            this.parser = parser;
+        }
+
+        Object parse(String field, String value) {
+            try {
+                Object parsed = parser.apply(value);
+                return this == DECIMAL ? PriceBounds.check(field, (BigDecimal) parsed) : parsed;
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new BadRequestException("Invalid value for " + field + ": " + value);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.template.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.template.entity.Product;
+import com.template.exception.ResourceNotFoundException;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.ZoneId;
+
+/**
+ * Opt-in fast path for the read-only product endpoints: documents are fetched
+ * as {@link RawBsonDocument}s and transcoded straight into the response by
+ * {@link RawProductJsonWriter}, skipping the entity, the DTO and the
+ * {@code ApiResponse} object graph. Runs the same filters as
+ * {@code ProductRepository}; it bypasses single-flight coalescing. The JSON is
+ * built in a buffer and only then copied to the response, so a document the
+ * writer cannot transcode still reaches the exception handler instead of
+ * leaving a truncated 200.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductRawReadService {
+
+    private static final Document ACTIVE = new Document("isActive", true);
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${product.raw-read.enabled:false}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void writeProductById(String id, String message, HttpServletResponse response) throws IOException {
+        Object idValue = ObjectId.isValid(id) ? new ObjectId(id) : id;
+        Bson filter = new Document("_id", idValue).append("isActive", true);
+        RawBsonDocument product = collection().find(filter).limit(1).first();
+        if (product == null) {
+            throw new ResourceNotFoundException("Product not found with id: " + id);
+        }
+        RawProductJsonWriter writer = newWriter();
+        respond(response, gen -> {
+            writer.writeEnvelopeStart(gen, message);
+            writer.writeProduct(gen, product);
+            writer.writeEnvelopeEnd(gen);
+        });
+    }
+
+    public void writeAllProducts(Pageable pageable, String message, HttpServletResponse response) throws IOException {
+        writePage(ACTIVE, pageable, message, response);
+    }
+
+    public void writeProductsByName(String name, Pageable pageable, String message, HttpServletResponse response)
+            throws IOException {
+        Bson filter = new Document("name", new Document("$regex", name).append("$options", "i"))
+                .append("isActive", true);
+        writePage(filter, pageable, message, response);
+    }
+
+    public void writeProductsByCategory(String category, Pageable pageable, String message,
+                                        HttpServletResponse response) throws IOException {
+        writePage(new Document("category", category).append("isActive", true), pageable, message, response);
+    }
+
+    public void writeInStockProducts(Pageable pageable, String message, HttpServletResponse response)
+            throws IOException {
+        Bson filter = new Document("quantity", new Document("$gt", 0)).append("isActive", true);
+        writePage(filter, pageable, message, response);
+    }
+
+    private void writePage(Bson filter, Pageable pageable, String message, HttpServletResponse response)
+            throws IOException {
+        MongoCollection<RawBsonDocument> collection = collection();
+        try (MongoCursor<RawBsonDocument> cursor = collection.find(filter)
+                .skip((int) pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .batchSize(pageable.getPageSize())
+                .cursor()) {
+            RawProductJsonWriter writer = newWriter();
+            respond(response, gen -> {
+                writer.writeEnvelopeStart(gen, message);
+                int count = writer.writePageContent(gen, cursor);
+                writer.writePageMetadata(gen, pageable, count, total(collection, filter, pageable, count));
+                writer.writeEnvelopeEnd(gen);
+            });
+        }
+    }
+
+    /** Same count-avoidance rules as {@code PageableExecutionUtils} and {@code PageImpl}. */
+    private static long total(MongoCollection<RawBsonDocument> collection, Bson filter, Pageable pageable, int count) {
+        long offset = pageable.getOffset();
+        int size = pageable.getPageSize();
+        if (offset == 0 && size > count) {
+            return count;
+        }
+        if (count != 0 && size > count) {
+            return offset + count;
+        }
+        long total = collection.countDocuments(filter);
+        return count != 0 && offset + size > total ? offset + count : total;
+    }
+
+    private MongoCollection<RawBsonDocument> collection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Product.class))
+                .withDocumentClass(RawBsonDocument.class);
+    }
+
+    private RawProductJsonWriter newWriter() {
+        return new RawProductJsonWriter(ZoneId.systemDefault());
+    }
+
+    /** Writes the whole body before touching the response, which stays uncommitted if {@code body} throws. */
+    private void respond(HttpServletResponse response, JsonBody body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(buffer, JsonEncoding.UTF8)) {
+            body.write(gen);
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(buffer.size());
+        buffer.writeTo(response.getOutputStream());
+    }
+
+    @FunctionalInterface
+    private interface JsonBody {
+        void write(JsonGenerator gen) throws IOException;
+    }
+}
@@ -1,18 +1,34 @@
 package com.template.service;
 
+import com.template.dto.BatchResponse;
+import com.template.dto.ProductBrowseRequest;
 import com.template.dto.ProductDTO;
+import com.template.dto.ProductQueryResponse;
+import com.template.dto.ProductSearchResponse;
+import com.template.entity.OutboxEvent;
 import com.template.entity.Product;
 import com.template.exception.ResourceNotFoundException;
 import com.template.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,6 +37,25 @@ import java.util.stream.Collectors;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final BatchLookupService batchLookupService;
+    private final CategoryStatsService categoryStatsService;
+    private final ProductFacetService productFacetService;
+    private final ProductDTOCache productDTOCache;
+    private final ProductSuggestService productSuggestService;
+    private final MongoTemplate mongoTemplate;
+    private final ProductQueryService productQueryService;
+    private final OutboxService outboxService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${product.single-flight.timeout-millis:5000}")
+    private long singleFlightTimeoutMillis;
+
+    private SingleFlight<QueryKey> queries;
+
+    @PostConstruct
+    void initSingleFlight() {
+        queries = new SingleFlight<>("product-queries", Duration.ofMillis(singleFlightTimeoutMillis), meterRegistry);
+    }
 
     public ProductDTO createProduct(ProductDTO productDTO) {
         log.info("Creating product: {}", productDTO.getName());
@@ -34,14 +69,21 @@ public class ProductService {
                 .sku(productDTO.getSku())
                 .isActive(true)
                 .build();
-        Product savedProduct = productRepository.save(product);
-        return mapToDTO(savedProduct);
+        ProductDTO created = outboxService.inTransaction(() -> {
+            ProductDTO saved = mapToDTO(productRepository.save(product));
+            outboxService.append(OutboxEvent.PRODUCT, saved.getId(), "ProductCreated", saved);
+            return saved;
+        });
+        productFacetService.invalidateAll();
+        productSuggestService.onProductWritten(created);
+        return created;
     }
 
     public ProductDTO updateProduct(String id, ProductDTO productDTO) {
         log.info("Updating product with id: {}", id);
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        String oldCategory = product.getCategory();
         
         product.setName(productDTO.getName());
         product.setDescription(productDTO.getDescription());
@@ -50,17 +92,35 @@ public class ProductService {
         product.setCategory(productDTO.getCategory());
         product.setImageUrl(productDTO.getImageUrl());
         
-        Product updatedProduct = productRepository.save(product);
-        return mapToDTO(updatedProduct);
+        ProductDTO updated = outboxService.inTransaction(() -> {
+            ProductDTO saved = mapToDTO(productRepository.save(product));
+            outboxService.append(OutboxEvent.PRODUCT, id, "ProductUpdated", saved);
+            return saved;
+        });
+        // Only once committed, or a rebuild could still count the product in its old category
+        if (!Objects.equals(oldCategory, updated.getCategory())) {
+            categoryStatsService.markDirty(oldCategory);
+        }
+        productFacetService.invalidateAll();
+        productDTOCache.evict(id);
+        productSuggestService.onProductWritten(updated);
+        return updated;
     }
 
     public ProductDTO getProductById(String id) {
         log.info("Fetching product with id: {}", id);
-        Product product = productRepository.findByIdAndActive(id)
+        Optional<Product> found = queries.execute(new QueryKey("findByIdAndActive", id, null),
+                () -> productRepository.findByIdAndActive(id));
+        Product product = found
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         return mapToDTO(product);
     }
 
+    public BatchResponse<ProductDTO> getProductsByIds(List<String> ids) {
+        log.info("Fetching {} products by id", ids == null ? 0 : ids.size());
+        return batchLookupService.findActiveByIds(ids, productRepository, this::mapToDTO);
+    }
+
     public Page<ProductDTO> getAllProducts(Pageable pageable) {
         log.info("Fetching all products");
         Page<Product> products = productRepository.findAllActive(pageable);
@@ -75,25 +135,85 @@ public class ProductService {
 
     public Page<ProductDTO> getProductsByCategory(String category, Pageable pageable) {
         log.info("Fetching products by category: {}", category);
-        Page<Product> products = productRepository.findByCategory(category, pageable);
+        Page<Product> products = queries.execute(new QueryKey("findByCategory", category, pageable),
+                () -> productRepository.findByCategory(category, pageable));
         return products.map(this::mapToDTO);
     }
 
     public Page<ProductDTO> getInStockProducts(Pageable pageable) {
         log.info("Fetching in-stock products");
-        Page<Product> products = productRepository.findInStock(pageable);
+        Page<Product> products = queries.execute(new QueryKey("findInStock", null, pageable),
+                () -> productRepository.findInStock(pageable));
         return products.map(this::mapToDTO);
     }
 
+    public ProductSearchResponse getProductsWithFacets(ProductFacetService.FacetQuery query, Pageable pageable) {
+        log.info("Fetching products with facets: {}", query);
+        ProductFacetService.FacetedPage result = productFacetService.query(query, pageable);
+        return ProductSearchResponse.builder()
+                .products(result.page().map(this::mapToDTO))
+                .facets(result.facets())
+                .build();
+    }
+
+    public Page<ProductDTO> browseProducts(ProductBrowseRequest request, Pageable pageable) {
+        log.info("Browsing products from Mongo: {}", request);
+        Criteria criteria = Criteria.where("isActive").is(true);
+        if (request.getCategory() != null) {
+            criteria.and("category").is(request.getCategory());
+        }
+        if (Boolean.TRUE.equals(request.getInStock())) {
+            criteria.and("quantity").gt(0);
+        } else if (Boolean.FALSE.equals(request.getInStock())) {
+            criteria.and("quantity").lte(0);
+        }
+        BigDecimal minPrice = PriceBounds.check("minPrice", request.getMinPrice());
+        BigDecimal maxPrice = PriceBounds.check("maxPrice", request.getMaxPrice());
+        if (minPrice != null || maxPrice != null) {
+            Criteria price = criteria.and("price");
+            if (minPrice != null) {
+                price.gte(minPrice);
+            }
+            if (maxPrice != null) {
+                price.lte(maxPrice);
+            }
+        }
+        String sortField = request.getSortBy() == ProductBrowseRequest.SortBy.PRICE ? "price" : "createdAt";
+        Sort sort = Sort.by(request.isDescending() ? Sort.Direction.DESC : Sort.Direction.ASC, sortField);
+
+        Query query = Query.query(criteria);
+        long total = mongoTemplate.count(query, Product.class);
+        List<Product> products = mongoTemplate.find(query.with(pageable).with(sort), Product.class);
+        return new PageImpl<>(products, pageable, total).map(this::mapToDTO);
+    }
+
+    public ProductQueryResponse queryProducts(List<String> filters, List<String> sorts, Pageable pageable) {
+        log.info("Querying products - filters: {}, sort: {}", filters, sorts);
+        ProductQueryService.Result result = productQueryService.query(filters, sorts, pageable);
+        return ProductQueryResponse.builder()
+                .products(result.page().map(this::mapToDTO))
+                .queryShape(result.shape())
+                .index(result.index())
+                .indexed(result.index() != null)
+                .build();
+    }
+
     public void deleteProduct(String id) {
         log.info("Deleting product with id: {}", id);
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         product.setIsActive(false);
-        productRepository.save(product);
+        ProductDTO deleted = outboxService.inTransaction(() -> {
+            ProductDTO saved = mapToDTO(productRepository.save(product));
+            outboxService.append(OutboxEvent.PRODUCT, id, "ProductDeleted", saved);
+            return saved;
+        });
+        productFacetService.invalidateAll();
+        productDTOCache.evict(id);
+        productSuggestService.onProductWritten(deleted);
     }
 
-    private ProductDTO mapToDTO(Product product) {
+    ProductDTO mapToDTO(Product product) {
         return ProductDTO.builder()
                 .id(product.getId())
                 .name(product.getName())
@@ -108,4 +228,7 @@ public class ProductService {
                 .isActive(product.getIsActive())
                 .build();
     }
+
+    private record QueryKey(String query, String argument, Pageable pageable) {
+    }
 }
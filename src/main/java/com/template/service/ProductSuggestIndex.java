@@ -0,0 +1,254 @@
+package com.template.service;
+
+import com.template.dto.ProductSuggestionDTO;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix trie over normalized product names and SKUs for typeahead. A name is
+ * indexed from every word start, so "mou" finds "Wireless Mouse". Each node
+ * keeps the top K products below it by score (stock), so a lookup is one walk
+ * down the prefix and no ranking at query time.
+ *
+ * <p>One node per distinct prefix, up to {@code maxDepth} characters. A
+ * product's terms end at the node for their (truncated) text; after a put or
+ * remove the top K of each node on the affected paths is recomputed bottom-up
+ * from that node's own products and its children's top K, which is exact
+ * because a child's top K already holds the best of its subtree.
+ *
+ * <p>Single writer, many readers: mutations must be serialized by the caller;
+ * readers never lock and see child and top-K arrays replaced copy-on-write.
+ */
+final class ProductSuggestIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::score).reversed()
+            .thenComparing(entry -> entry.suggestion().getName(), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Entry::id);
+
+    private final int topK;
+    private final int maxDepth;
+    private final Node root = new Node('\0');
+    private final Map<String, Entry> entries = new HashMap<>();
+    private volatile int nodes = 1;
+
+    ProductSuggestIndex(int topK, int maxDepth) {
+        this.topK = topK;
+        this.maxDepth = maxDepth;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    int nodes() {
+        return nodes;
+    }
+
+    List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        Node node = root;
+        int depth = Math.min(normalized.length(), maxDepth);
+        for (int i = 0; i < depth && node != null; i++) {
+            node = node.child(normalized.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        boolean truncated = normalized.length() > maxDepth;
+        List<ProductSuggestionDTO> result = new ArrayList<>(Math.min(limit, topK));
+        for (Entry entry : node.top) {
+            if (result.size() == limit) {
+                break;
+            }
+            // Past maxDepth the node only narrows by the first maxDepth characters
+            if (truncated && terms(entry.suggestion()).stream().noneMatch(term -> term.startsWith(normalized))) {
+                continue;
+            }
+            result.add(entry.suggestion());
+        }
+        return result;
+    }
+
+    void put(ProductSuggestionDTO suggestion, long score) {
+        remove(suggestion.getId());
+        Entry entry = new Entry(suggestion.getId(), score, suggestion);
+        entries.put(entry.id(), entry);
+        for (String term : terms(suggestion)) {
+            Node[] path = path(term, true);
+            Node end = path[path.length - 1];
+            end.terminals = append(end.terminals, entry);
+            recompute(path);
+        }
+    }
+
+    void remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String term : terms(entry.suggestion())) {
+            Node[] path = path(term, false);
+            if (path == null) {
+                continue;
+            }
+            Node end = path[path.length - 1];
+            end.terminals = without(end.terminals, entry);
+            recompute(path);
+        }
+    }
+
+    /** Nodes from the root down to the node for {@code term}; null if absent and not creating. */
+    private Node[] path(String term, boolean create) {
+        int depth = Math.min(term.length(), maxDepth);
+        Node[] path = new Node[depth + 1];
+        path[0] = root;
+        for (int i = 0; i < depth; i++) {
+            Node child = path[i].child(term.charAt(i));
+            if (child == null) {
+                if (!create) {
+                    return null;
+                }
+                child = path[i].addChild(term.charAt(i));
+                nodes++;
+            }
+            path[i + 1] = child;
+        }
+        return path;
+    }
+
+    /** Recomputes top K bottom-up along a path, unlinking nodes left with nothing below them. */
+    private void recompute(Node[] path) {
+        for (int i = path.length - 1; i > 0; i--) {
+            Node node = path[i];
+            if (node.terminals.length == 0 && node.children.length == 0) {
+                path[i - 1].removeChild(node.key);
+                nodes--;
+                continue;
+            }
+            List<Entry> candidates = new ArrayList<>(node.terminals.length + node.children.length * topK);
+            candidates.addAll(Arrays.asList(node.terminals));
+            for (Node child : node.children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(RANKING);
+            List<Entry> top = new ArrayList<>(topK);
+            for (Entry candidate : candidates) {
+                // A product reachable through two of its terms shows up once
+                if (top.size() == topK) {
+                    break;
+                }
+                if (top.isEmpty() || top.get(top.size() - 1) != candidate) {
+                    top.add(candidate);
+                }
+            }
+            node.top = top.toArray(NO_ENTRIES);
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /** Name from each word start, plus the SKU. */
+    private static Set<String> terms(ProductSuggestionDTO suggestion) {
+        Set<String> terms = new LinkedHashSet<>();
+        String name = normalize(suggestion.getName());
+        if (!name.isEmpty()) {
+            terms.add(name);
+            for (int i = name.indexOf(' '); i >= 0; i = name.indexOf(' ', i + 1)) {
+                terms.add(name.substring(i + 1));
+            }
+        }
+        String sku = normalize(suggestion.getSku());
+        if (!sku.isEmpty()) {
+            terms.add(sku);
+        }
+        return terms;
+    }
+
+    private static Entry[] append(Entry[] entries, Entry entry) {
+        Entry[] copy = Arrays.copyOf(entries, entries.length + 1);
+        copy[entries.length] = entry;
+        return copy;
+    }
+
+    private static Entry[] without(Entry[] entries, Entry entry) {
+        return Arrays.stream(entries).filter(existing -> existing != entry).toArray(Entry[]::new);
+    }
+
+    private record Entry(String id, long score, ProductSuggestionDTO suggestion) {
+    }
+
+    private static final class Node {
+
+        private final char key;
+        // Sorted by key; replaced, never mutated, so readers can binary search without locking
+        private volatile Node[] children = NO_CHILDREN;
+        private volatile Entry[] top = NO_ENTRIES;
+        private Entry[] terminals = NO_ENTRIES;
+
+        private Node(char key) {
+            this.key = key;
+        }
+
+        private Node child(char c) {
+            Node[] current = children;
+            int low = 0;
+            int high = current.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midKey = current[mid].key;
+                if (midKey < c) {
+                    low = mid + 1;
+                } else if (midKey > c) {
+                    high = mid - 1;
+                } else {
+                    return current[mid];
+                }
+            }
+            return null;
+        }
+
+        private Node addChild(char c) {
+            Node child = new Node(c);
+            Node[] current = children;
+            int at = 0;
+            while (at < current.length && current[at].key < c) {
+                at++;
+            }
+            Node[] copy = new Node[current.length + 1];
+            System.arraycopy(current, 0, copy, 0, at);
+            copy[at] = child;
+            System.arraycopy(current, at, copy, at + 1, current.length - at);
+            children = copy;
+            return child;
+        }
+
+        private void removeChild(char c) {
+            children = Arrays.stream(children).filter(child -> child.key != c).toArray(Node[]::new);
+        }
+    }
+}
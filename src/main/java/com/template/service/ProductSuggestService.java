@@ -0,0 +1,185 @@
+package com.template.service;
+
+import com.template.dto.ProductDTO;
+import com.template.dto.ProductSuggestionDTO;
+import com.template.entity.Product;
+import com.template.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Typeahead for {@code /products/suggest} from an in-memory
+ * {@link ProductSuggestIndex} of active products, ranked by stock.
+ *
+ * <p>The index is built once at startup and then kept current incrementally:
+ * local writes are applied as they happen, changes from other instances
+ * arrive as cache invalidations and are reloaded by id on the next refresh.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSuggestService implements CacheInvalidationListener {
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${product.suggest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${product.suggest.top-k:10}")
+    private int topK;
+
+    @Value("${product.suggest.max-prefix-length:32}")
+    private int maxPrefixLength;
+
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private volatile ProductSuggestIndex index;
+    private volatile boolean rebuildRequested;
+    private boolean rebuilding;
+
+    @PostConstruct
+    void initMetrics() {
+        Gauge.builder("product.suggest.products", this, s -> s.index == null ? 0 : s.index.size())
+                .register(meterRegistry);
+        Gauge.builder("product.suggest.nodes", this, s -> s.index == null ? 0 : s.index.nodes())
+                .register(meterRegistry);
+    }
+
+    public List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+        ProductSuggestIndex current = index;
+        if (!enabled || current == null) {
+            throw new ServiceUnavailableException("Product suggestions are not available yet");
+        }
+        return current.suggest(prefix, Math.max(1, Math.min(limit, topK)));
+    }
+
+    /** Applies a product written on this instance without waiting for the change stream. */
+    public synchronized void onProductWritten(ProductDTO product) {
+        if (rebuilding) {
+            dirty.add(product.getId());
+        }
+        if (index != null) {
+            apply(index, product.getId(), Boolean.TRUE.equals(product.getIsActive()) ? toSuggestion(product) : null,
+                    product.getQuantity());
+        }
+    }
+
+    @Override
+    public void invalidate(String collection, String id) {
+        if ("products".equals(collection)) {
+            dirty.add(id);
+        }
+    }
+
+    @Override
+    public void invalidateAll(String collection) {
+        if ("products".equals(collection)) {
+            rebuildRequested = true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.suggest.refresh-interval-millis:1000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (index == null || rebuildRequested) {
+                rebuild();
+            } else if (!dirty.isEmpty()) {
+                reloadDirty();
+            }
+        } catch (RuntimeException e) {
+            log.error("Refreshing product suggestions failed: {}", e.getMessage());
+        }
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            rebuilding = true;
+            rebuildRequested = false;
+        }
+        ProductSuggestIndex fresh = new ProductSuggestIndex(topK, maxPrefixLength);
+        try (Stream<Product> products = mongoTemplate.stream(suggestionQuery(Criteria.where("isActive").is(true)), Product.class)) {
+            products.forEach(product -> fresh.put(toSuggestion(product), score(product.getQuantity())));
+        } finally {
+            synchronized (this) {
+                rebuilding = false;
+            }
+        }
+        synchronized (this) {
+            index = fresh;
+        }
+        // Writes made while the index was being built
+        reloadDirty();
+        log.info("Built product suggestion index: {} products, {} prefixes in {} ms",
+                fresh.size(), fresh.nodes(), System.currentTimeMillis() - start);
+    }
+
+    private void reloadDirty() {
+        List<String> ids = new ArrayList<>(dirty);
+        if (ids.isEmpty()) {
+            return;
+        }
+        dirty.removeAll(ids);
+        List<Product> products = mongoTemplate.find(suggestionQuery(Criteria.where("_id").in(ids)), Product.class);
+        Set<String> found = new HashSet<>();
+        synchronized (this) {
+            for (Product product : products) {
+                found.add(product.getId());
+                apply(index, product.getId(), Boolean.TRUE.equals(product.getIsActive()) ? toSuggestion(product) : null,
+                        product.getQuantity());
+            }
+            for (String id : ids) {
+                if (!found.contains(id)) {
+                    index.remove(id);
+                }
+            }
+        }
+    }
+
+    private static void apply(ProductSuggestIndex index, String id, ProductSuggestionDTO suggestion, Integer quantity) {
+        if (suggestion == null) {
+            index.remove(id);
+        } else {
+            index.put(suggestion, score(quantity));
+        }
+    }
+
+    private static Query suggestionQuery(Criteria criteria) {
+        Query query = Query.query(criteria);
+        query.fields().include("_id", "name", "sku", "category", "quantity", "isActive");
+        return query;
+    }
+
+    private static long score(Integer quantity) {
+        return quantity == null ? 0 : quantity;
+    }
+
+    private static ProductSuggestionDTO toSuggestion(Product product) {
+        return new ProductSuggestionDTO(product.getId(), product.getName(), product.getSku(),
+                product.getCategory(), product.getQuantity());
+    }
+
+    private static ProductSuggestionDTO toSuggestion(ProductDTO product) {
+        return new ProductSuggestionDTO(product.getId(), product.getName(), product.getSku(),
+                product.getCategory(), product.getQuantity());
+    }
+}
@@ -0,0 +1,355 @@
+package com.template.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.bson.RawBsonDocument;
+import org.bson.types.Decimal128;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneRules;
+import java.util.Iterator;
+
+/**
+ * Transcodes raw product BSON straight into JSON with the same shape the
+ * {@code ProductDTO} / {@code ApiResponse<Page<ProductDTO>>} path produces,
+ * without decoding into a {@code Document}, entity or DTO.
+ *
+ * <p>Walks the document bytes once: whitelisted fields are written under
+ * their DTO names ({@code _id} becomes {@code id}), everything else
+ * ({@code _class}, fields the DTO does not expose) is skipped. Strings are
+ * copied as UTF-8 bytes and dates are formatted into a scratch buffer, so the
+ * per-document cost is the JSON output itself. Not thread-safe; use one
+ * instance per response.
+ */
+final class RawProductJsonWriter {
+
+    private static final String[] BSON_FIELDS = {
+            "_id", "name", "description", "price", "quantity", "category",
+            "imageUrl", "sku", "createdAt", "updatedAt", "isActive"};
+    private static final String[] JSON_FIELDS = {
+            "id", "name", "description", "price", "quantity", "category",
+            "imageUrl", "sku", "createdAt", "updatedAt", "isActive"};
+    private static final int PRICE_FIELD = 3;
+    private static final int ACTIVE_FIELD = 10;
+
+    private static final byte[][] BSON_NAMES = new byte[BSON_FIELDS.length][];
+    private static final SerializedString[] JSON_NAMES = new SerializedString[JSON_FIELDS.length];
+
+    static {
+        for (int i = 0; i < BSON_FIELDS.length; i++) {
+            BSON_NAMES[i] = BSON_FIELDS[i].getBytes(StandardCharsets.UTF_8);
+            JSON_NAMES[i] = new SerializedString(JSON_FIELDS[i]);
+        }
+    }
+
+    private static final SerializedString SUCCESS = new SerializedString("success");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString DATA = new SerializedString("data");
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializedString CONTENT = new SerializedString("content");
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final ZoneId zone;
+    private final ZoneRules zoneRules;
+    private final long fixedOffsetMillis;
+    private final char[] scratch = new char[48];
+
+    RawProductJsonWriter(ZoneId zone) {
+        this.zone = zone;
+        this.zoneRules = zone.getRules();
+        this.fixedOffsetMillis = zoneRules.isFixedOffset()
+                ? zoneRules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000L
+                : Long.MIN_VALUE;
+    }
+
+    /** Opens the {@code ApiResponse} envelope and its {@code data} field. */
+    void writeEnvelopeStart(JsonGenerator gen, String message) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(SUCCESS);
+        gen.writeBoolean(true);
+        gen.writeFieldName(MESSAGE);
+        gen.writeString(message);
+        gen.writeFieldName(DATA);
+    }
+
+    void writeEnvelopeEnd(JsonGenerator gen) throws IOException {
+        gen.writeFieldName(TIMESTAMP);
+        writeLocalDateTime(gen, System.currentTimeMillis());
+        gen.writeEndObject();
+    }
+
+    /**
+     * Writes {@code "content": [...]} from the cursor and returns the number
+     * of documents written. The caller finishes the page with
+     * {@link #writePageMetadata} once the total is known.
+     */
+    int writePageContent(JsonGenerator gen, Iterator<RawBsonDocument> documents) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(CONTENT);
+        gen.writeStartArray();
+        int count = 0;
+        while (documents.hasNext()) {
+            writeProduct(gen, documents.next());
+            count++;
+        }
+        gen.writeEndArray();
+        return count;
+    }
+
+    /** Mirrors how Jackson serializes a {@code PageImpl} over an unsorted {@code PageRequest}. */
+    void writePageMetadata(JsonGenerator gen, Pageable pageable, int numberOfElements, long total) throws IOException {
+        int size = pageable.getPageSize();
+        int number = pageable.getPageNumber();
+        int totalPages = size == 0 ? 1 : (int) Math.ceil((double) total / size);
+
+        gen.writeObjectFieldStart("pageable");
+        gen.writeNumberField("pageNumber", number);
+        gen.writeNumberField("pageSize", size);
+        writeUnsorted(gen);
+        gen.writeNumberField("offset", pageable.getOffset());
+        gen.writeBooleanField("paged", true);
+        gen.writeBooleanField("unpaged", false);
+        gen.writeEndObject();
+        gen.writeNumberField("totalElements", total);
+        gen.writeBooleanField("last", number + 1 >= totalPages);
+        gen.writeNumberField("totalPages", totalPages);
+        gen.writeNumberField("size", size);
+        gen.writeNumberField("number", number);
+        writeUnsorted(gen);
+        gen.writeBooleanField("first", number == 0);
+        gen.writeNumberField("numberOfElements", numberOfElements);
+        gen.writeBooleanField("empty", numberOfElements == 0);
+        gen.writeEndObject();
+    }
+
+    private static void writeUnsorted(JsonGenerator gen) throws IOException {
+        gen.writeObjectFieldStart("sort");
+        gen.writeBooleanField("empty", true);
+        gen.writeBooleanField("sorted", false);
+        gen.writeBooleanField("unsorted", true);
+        gen.writeEndObject();
+    }
+
+    void writeProduct(JsonGenerator gen, RawBsonDocument document) throws IOException {
+        ByteBuffer buffer = document.getByteBuffer().asNIO();
+        writeProduct(gen, buffer.array(), buffer.arrayOffset() + buffer.position());
+    }
+
+    void writeProduct(JsonGenerator gen, byte[] bson, int offset) throws IOException {
+        gen.writeStartObject();
+        int end = offset + readInt(bson, offset) - 1;
+        int pos = offset + 4;
+        int seen = 0;
+        while (pos < end) {
+            byte type = bson[pos++];
+            int nameStart = pos;
+            while (bson[pos] != 0) {
+                pos++;
+            }
+            int field = fieldIndex(bson, nameStart, pos - nameStart);
+            pos++;
+            if (field < 0) {
+                pos = skipValue(bson, type, pos);
+                continue;
+            }
+            seen |= 1 << field;
+            gen.writeFieldName(JSON_NAMES[field]);
+            pos = writeValue(gen, bson, type, pos, field == PRICE_FIELD);
+        }
+        // The DTO serializes absent properties as null, except isActive which
+        // keeps the entity's field initializer.
+        for (int i = 0; i < JSON_NAMES.length; i++) {
+            if ((seen & (1 << i)) == 0) {
+                gen.writeFieldName(JSON_NAMES[i]);
+                if (i == ACTIVE_FIELD) {
+                    gen.writeBoolean(true);
+                } else {
+                    gen.writeNull();
+                }
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    private static int fieldIndex(byte[] bson, int start, int length) {
+        outer:
+        for (int i = 0; i < BSON_NAMES.length; i++) {
+            byte[] name = BSON_NAMES[i];
+            if (name.length != length) {
+                continue;
+            }
+            for (int j = 0; j < length; j++) {
+                if (name[j] != bson[start + j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private int writeValue(JsonGenerator gen, byte[] bson, byte type, int pos, boolean decimalString) throws IOException {
+        switch (type) {
+            case 0x01 -> {
+                gen.writeNumber(Double.longBitsToDouble(readLong(bson, pos)));
+                return pos + 8;
+            }
+            case 0x02 -> {
+                int length = readInt(bson, pos) - 1;
+                int start = pos + 4;
+                // Prices written before the Decimal128 migration are strings; the DTO writes them as JSON numbers.
+                if (decimalString && length <= scratch.length) {
+                    for (int i = 0; i < length; i++) {
+                        scratch[i] = (char) bson[start + i];
+                    }
+                    gen.writeNumber(scratch, 0, length);
+                } else {
+                    gen.writeUTF8String(bson, start, length);
+                }
+                return start + length + 1;
+            }
+            case 0x07 -> {
+                for (int i = 0; i < 12; i++) {
+                    int b = bson[pos + i] & 0xFF;
+                    scratch[i * 2] = HEX[b >>> 4];
+                    scratch[i * 2 + 1] = HEX[b & 0x0F];
+                }
+                gen.writeString(scratch, 0, 24);
+                return pos + 12;
+            }
+            case 0x08 -> {
+                gen.writeBoolean(bson[pos] != 0);
+                return pos + 1;
+            }
+            case 0x09 -> {
+                writeLocalDateTime(gen, readLong(bson, pos));
+                return pos + 8;
+            }
+            case 0x0A -> {
+                gen.writeNull();
+                return pos;
+            }
+            case 0x10 -> {
+                gen.writeNumber(readInt(bson, pos));
+                return pos + 4;
+            }
+            case 0x12 -> {
+                gen.writeNumber(readLong(bson, pos));
+                return pos + 8;
+            }
+            case 0x13 -> {
+                gen.writeNumber(Decimal128.fromIEEE754BIDEncoding(readLong(bson, pos + 8), readLong(bson, pos))
+                        .bigDecimalValue());
+                return pos + 16;
+            }
+            default -> {
+                // Not a type the entity mapping would produce for this field.
+                gen.writeNull();
+                return skipValue(bson, type, pos);
+            }
+        }
+    }
+
+    private static int skipValue(byte[] bson, byte type, int pos) {
+        return switch (type) {
+            case 0x01, 0x09, 0x11, 0x12 -> pos + 8;
+            case 0x02, 0x0D, 0x0E -> pos + 4 + readInt(bson, pos);
+            case 0x03, 0x04, 0x0F -> pos + readInt(bson, pos);
+            case 0x05 -> pos + 5 + readInt(bson, pos);
+            case 0x06, 0x0A, 0x7F, (byte) 0xFF -> pos;
+            case 0x07 -> pos + 12;
+            case 0x08 -> pos + 1;
+            case 0x0B -> skipCString(bson, skipCString(bson, pos));
+            case 0x0C -> pos + 4 + readInt(bson, pos) + 12;
+            case 0x10 -> pos + 4;
+            case 0x13 -> pos + 16;
+            default -> throw new IllegalStateException("Unsupported BSON type 0x" + Integer.toHexString(type & 0xFF));
+        };
+    }
+
+    private static int skipCString(byte[] bson, int pos) {
+        while (bson[pos] != 0) {
+            pos++;
+        }
+        return pos + 1;
+    }
+
+    /**
+     * Writes a BSON date the way Spring Data maps it to {@code LocalDateTime}
+     * (system zone) and Jackson then formats it ({@code ISO_LOCAL_DATE_TIME}).
+     */
+    void writeLocalDateTime(JsonGenerator gen, long epochMillis) throws IOException {
+        long offset = fixedOffsetMillis != Long.MIN_VALUE
+                ? fixedOffsetMillis
+                : zoneRules.getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds() * 1000L;
+        long localMillis = epochMillis + offset;
+        long epochDay = Math.floorDiv(localMillis, MILLIS_PER_DAY);
+        int millisOfDay = (int) Math.floorMod(localMillis, MILLIS_PER_DAY);
+
+        // Civil-from-days over the proleptic Gregorian calendar.
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        if (year < 0 || year > 9999) {
+            String formatted = DateTimeFormatter.ISO_LOCAL_DATE_TIME
+                    .format(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone));
+            gen.writeString(formatted);
+            return;
+        }
+
+        int n = 0;
+        n = digits(scratch, n, (int) year, 4);
+        scratch[n++] = '-';
+        n = digits(scratch, n, month, 2);
+        scratch[n++] = '-';
+        n = digits(scratch, n, day, 2);
+        scratch[n++] = 'T';
+        n = digits(scratch, n, millisOfDay / 3_600_000, 2);
+        scratch[n++] = ':';
+        n = digits(scratch, n, millisOfDay / 60_000 % 60, 2);
+        scratch[n++] = ':';
+        n = digits(scratch, n, millisOfDay / 1000 % 60, 2);
+        int millis = millisOfDay % 1000;
+        if (millis != 0) {
+            scratch[n++] = '.';
+            int width = millis % 100 == 0 ? 1 : millis % 10 == 0 ? 2 : 3;
+            n = digits(scratch, n, width == 1 ? millis / 100 : width == 2 ? millis / 10 : millis, width);
+        }
+        gen.writeString(scratch, 0, n);
+    }
+
+    private static int digits(char[] buffer, int pos, int value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+
+    private static int readInt(byte[] bson, int pos) {
+        return (bson[pos] & 0xFF)
+                | (bson[pos + 1] & 0xFF) << 8
+                | (bson[pos + 2] & 0xFF) << 16
+                | (bson[pos + 3] & 0xFF) << 24;
+    }
+
+    private static long readLong(byte[] bson, int pos) {
+        return (readInt(bson, pos) & 0xFFFFFFFFL) | (long) readInt(bson, pos + 4) << 32;
+    }
+}
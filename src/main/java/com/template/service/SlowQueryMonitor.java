@@ -0,0 +1,310 @@
+package com.template.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.template.dto.SlowQueryDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Captures slow Mongo commands from the driver's command events.
+ *
+ * <p>Commands slower than {@code slow-query.threshold-millis} are grouped by
+ * query shape: the command with every literal replaced by {@code "?"}, so
+ * {@code {category: "books"}} and {@code {category: "toys"}} count as one
+ * entry. Only the {@code slow-query.max-shapes} shapes with the highest total
+ * time are kept. Each shape is re-run under {@code explain("executionStats")}
+ * on a background thread, at most once per
+ * {@code slow-query.explain-interval-millis}, so the report shows docs
+ * examined against docs returned and the winning plan without turning on the
+ * database profiler.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SlowQueryMonitor implements CommandListener {
+
+    /** Parts of a command that decide its plan; everything else (batchSize, limit values, ...) is left out of the shape. */
+    private static final List<String> SHAPE_FIELDS = List.of(
+            "filter", "query", "q", "pipeline", "sort", "projection", "key", "hint", "updates", "deletes");
+
+    /** Values under these keys are structure (directions, inclusions), not literals. */
+    private static final Set<String> KEEP_VALUES = Set.of(
+            "sort", "$sort", "projection", "$project", "hint");
+
+    private static final BsonString LITERAL = new BsonString("?");
+
+    // The listener is registered on the client, so the client is looked up lazily
+    private final ObjectProvider<MongoClient> mongoClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${slow-query.enabled:true}")
+    private boolean enabled;
+
+    @Value("${slow-query.threshold-millis:100}")
+    private long thresholdMillis;
+
+    @Value("${slow-query.max-shapes:200}")
+    private int maxShapes;
+
+    @Value("${slow-query.explain-interval-millis:300000}")
+    private long explainIntervalMillis;
+
+    @Value("${slow-query.explain-queue-capacity:16}")
+    private int explainQueueCapacity;
+
+    private final Map<Integer, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private final Object evictionLock = new Object();
+
+    private ThreadPoolExecutor explainExecutor;
+    private Counter slowQueries;
+
+    @PostConstruct
+    void init() {
+        explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(explainQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+        slowQueries = Counter.builder("mongo.slow.queries")
+                .description("Mongo commands slower than slow-query.threshold-millis")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (!enabled || !MongoExplain.EXPLAINABLE.contains(event.getCommandName())) {
+            return;
+        }
+        // The event's document is backed by a pooled buffer that is released after this callback.
+        inFlight.put(event.getRequestId(), new InFlight(event.getDatabaseName(), event.getCommand().clone()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        InFlight command = inFlight.remove(event.getRequestId());
+        if (command != null) {
+            record(event.getCommandName(), command, event.getElapsedTime(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        inFlight.remove(event.getRequestId());
+    }
+
+    public List<SlowQueryDTO> getSlowQueries(int limit) {
+        return shapes.values().stream()
+                .sorted(Comparator.comparingLong(ShapeStats::totalNanos).reversed())
+                .limit(limit)
+                .map(ShapeStats::toDTO)
+                .toList();
+    }
+
+    public void reset() {
+        shapes.clear();
+    }
+
+    private void record(String commandName, InFlight command, long elapsedNanos) {
+        if (elapsedNanos < TimeUnit.MILLISECONDS.toNanos(thresholdMillis)) {
+            return;
+        }
+        slowQueries.increment();
+        String collection = collection(commandName, command.command());
+        String shape = shapeOf(commandName, collection, command.command());
+
+        ShapeStats stats = shapes.get(shape);
+        if (stats == null) {
+            synchronized (evictionLock) {
+                stats = shapes.get(shape);
+                if (stats == null) {
+                    evictIfFull();
+                    stats = new ShapeStats(command.database(), collection, commandName, shape);
+                    shapes.put(shape, stats);
+                    log.warn("New slow query shape on {}.{} ({} ms): {}", command.database(), collection,
+                            TimeUnit.NANOSECONDS.toMillis(elapsedNanos), shape);
+                }
+            }
+        }
+        stats.record(elapsedNanos);
+
+        long now = System.currentTimeMillis();
+        long lastExplain = stats.lastExplainAttemptMillis.get();
+        if (now - lastExplain >= explainIntervalMillis
+                && stats.lastExplainAttemptMillis.compareAndSet(lastExplain, now)) {
+            ShapeStats target = stats;
+            explainExecutor.execute(() -> explain(target, command));
+        }
+    }
+
+    private void evictIfFull() {
+        if (shapes.size() < maxShapes) {
+            return;
+        }
+        shapes.values().stream()
+                .min(Comparator.comparingLong(ShapeStats::totalNanos))
+                .ifPresent(coldest -> shapes.remove(coldest.shape));
+    }
+
+    private void explain(ShapeStats stats, InFlight command) {
+        try {
+            MongoExplain.Summary summary = MongoExplain.explain(mongoClient.getObject(), command.database(),
+                    command.command());
+            stats.explain = new ExplainSummary(summary.docsExamined(), summary.keysExamined(), summary.nReturned(),
+                    String.join(" <- ", summary.winningPlan()), summary.collectionScan(), Instant.now(), null);
+        } catch (RuntimeException e) {
+            log.debug("Explain failed for slow query shape {}", stats.shape, e);
+            stats.explain = new ExplainSummary(null, null, null, null, null, Instant.now(), e.getMessage());
+        }
+    }
+
+    private static String collection(String commandName, BsonDocument command) {
+        BsonValue value = command.get(commandName);
+        return value != null && value.isString() ? value.asString().getValue() : "";
+    }
+
+    static String shapeOf(String commandName, String collection, BsonDocument command) {
+        BsonDocument shape = new BsonDocument(commandName, new BsonString(collection));
+        for (String field : SHAPE_FIELDS) {
+            BsonValue value = command.get(field);
+            if (value != null) {
+                // The shape of a bulk update/delete should not depend on how many statements it carries
+                shape.put(field, normalize(MongoExplain.firstStatement(field, value), KEEP_VALUES.contains(field)));
+            }
+        }
+        return shape.toJson();
+    }
+
+    private static BsonValue normalize(BsonValue value, boolean keepValues) {
+        if (value.isDocument()) {
+            BsonDocument normalized = new BsonDocument();
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                normalized.put(entry.getKey(),
+                        normalize(entry.getValue(), keepValues || KEEP_VALUES.contains(entry.getKey())));
+            }
+            return normalized;
+        }
+        if (value.isArray()) {
+            BsonArray array = value.asArray();
+            // Pipelines, $and/$or branches and update statements are structure; $in lists are literals
+            if (!array.isEmpty() && array.get(0).isDocument()) {
+                BsonArray normalized = new BsonArray();
+                for (BsonValue element : array) {
+                    normalized.add(normalize(element, keepValues));
+                }
+                return normalized;
+            }
+            return keepValues ? array : new BsonArray(List.of(LITERAL));
+        }
+        if (keepValues) {
+            return value;
+        }
+        // Field paths ("$price") are structure, not values
+        if (value.isString() && value.asString().getValue().startsWith("$")) {
+            return value;
+        }
+        return LITERAL;
+    }
+
+    private record InFlight(String database, BsonDocument command) {
+    }
+
+    private record ExplainSummary(Long docsExamined, Long keysExamined, Long nReturned, String winningPlan,
+                                  Boolean collectionScan, Instant explainedAt, String error) {
+    }
+
+    private static final class ShapeStats {
+
+        private final String database;
+        private final String collection;
+        private final String command;
+        private final String shape;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLong lastExplainAttemptMillis = new AtomicLong(Long.MIN_VALUE / 2);
+        private volatile Instant lastSeenAt;
+        private volatile ExplainSummary explain;
+
+        private ShapeStats(String database, String collection, String command, String shape) {
+            this.database = database;
+            this.collection = collection;
+            this.command = command;
+            this.shape = shape;
+        }
+
+        private void record(long elapsedNanos) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+            lastSeenAt = Instant.now();
+        }
+
+        private long totalNanos() {
+            return totalNanos.sum();
+        }
+
+        private SlowQueryDTO toDTO() {
+            long calls = count.sum();
+            long total = totalNanos.sum();
+            ExplainSummary summary = explain;
+            SlowQueryDTO.SlowQueryDTOBuilder dto = SlowQueryDTO.builder()
+                    .database(database)
+                    .collection(collection)
+                    .command(command)
+                    .shape(shape)
+                    .count(calls)
+                    .totalMillis(total / 1e6)
+                    .avgMillis(calls == 0 ? 0 : total / 1e6 / calls)
+                    .maxMillis(maxNanos.get() / 1e6)
+                    .lastSeenAt(lastSeenAt);
+            if (summary != null) {
+                dto.docsExamined(summary.docsExamined())
+                        .keysExamined(summary.keysExamined())
+                        .nReturned(summary.nReturned())
+                        .docsExaminedPerReturned(summary.docsExamined() == null ? null
+                                : (double) summary.docsExamined() / Math.max(1, summary.nReturned()))
+                        .winningPlan(summary.winningPlan())
+                        .collectionScan(summary.collectionScan())
+                        .explainedAt(summary.explainedAt())
+                        .explainError(summary.error());
+            }
+            return dto.build();
+        }
+    }
+}
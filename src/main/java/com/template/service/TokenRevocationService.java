@@ -0,0 +1,153 @@
+package com.template.service;
+
+import com.template.entity.RevokedToken;
+import com.template.repository.RevokedTokenRepository;
+import com.template.security.BloomFilter;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token revocation. Revoked ids live in Mongo (TTL-expired) and are mirrored
+ * into an in-memory Bloom filter that is rebuilt in the background, so the
+ * request path only touches Mongo for the rare Bloom filter hit. Per-user
+ * "revoke all" markers are few and are kept in memory exactly.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${jwt.expiration}")
+    private long jwtExpiration;
+
+    @Value("${revocation.bloom.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    @Value("${revocation.bloom.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter revokedIds;
+    private volatile Map<String, Long> revokedBeforeBySubject = new ConcurrentHashMap<>();
+    private final Map<String, Instant> revokedLocally = new ConcurrentHashMap<>();
+    private final Map<String, Long> usersRevokedLocally = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        revokedIds = new BloomFilter(expectedInsertions, falsePositiveRate);
+        refresh();
+    }
+
+    public boolean isRevoked(Claims claims) {
+        String subject = claims.getSubject();
+        Long revokedBefore = subject == null ? null : revokedBeforeBySubject.get(subject);
+        Long issuedAt = issuedAtMillis(claims);
+        if (revokedBefore != null && issuedAt != null && issuedAt <= revokedBefore) {
+            return true;
+        }
+        String tokenId = claims.getId();
+        if (tokenId == null || !revokedIds.mightContain(tokenId)) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(tokenId);
+    }
+
+    /**
+     * The millisecond issue time; tokens from before that claim existed fall
+     * back to {@code iat}, whose whole second errs towards revoking.
+     */
+    private static Long issuedAtMillis(Claims claims) {
+        Object millis = claims.get(JwtService.ISSUED_AT_MILLIS);
+        if (millis instanceof Number number) {
+            return number.longValue();
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null ? null : issuedAt.getTime();
+    }
+
+    public void revokeToken(Claims claims) {
+        String tokenId = claims.getId();
+        if (tokenId == null) {
+            log.warn("Token for {} has no jti; revoking all of the user's tokens instead", claims.getSubject());
+            revokeAllForUser(claims.getSubject());
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .id(tokenId)
+                .type(RevokedToken.Type.TOKEN)
+                .subject(claims.getSubject())
+                .revokedAt(Instant.now())
+                .expiresAt(claims.getExpiration().toInstant())
+                .build());
+        revokedLocally.put(tokenId, Instant.now());
+        revokedIds.put(tokenId);
+        log.info("Revoked token {} for user: {}", tokenId, claims.getSubject());
+    }
+
+    public void revokeAllForUser(String email) {
+        Instant now = Instant.now();
+        revokedTokenRepository.save(RevokedToken.builder()
+                .id(RevokedToken.USER_PREFIX + email)
+                .type(RevokedToken.Type.ALL_FOR_USER)
+                .subject(email)
+                .revokedAt(now)
+                .expiresAt(now.plusMillis(jwtExpiration))
+                .build());
+        usersRevokedLocally.merge(email, now.toEpochMilli(), Math::max);
+        revokedBeforeBySubject.merge(email, now.toEpochMilli(), Math::max);
+        log.info("Revoked all tokens for user: {}", email);
+    }
+
+    /**
+     * Rebuilds the in-memory view from Mongo so revocations made on other
+     * instances take effect within one refresh interval.
+     */
+    @Scheduled(fixedDelayString = "${revocation.refresh-interval-millis:30000}",
+            initialDelayString = "${revocation.refresh-interval-millis:30000}")
+    public void refresh() {
+        try {
+            Query query = new Query(Criteria.where("expiresAt").gt(Instant.now()));
+            query.fields().include("_id", "type", "subject", "revokedAt");
+            List<RevokedToken> active = mongoTemplate.find(query, RevokedToken.class);
+
+            long tokens = active.stream().filter(r -> r.getType() == RevokedToken.Type.TOKEN).count();
+            BloomFilter filter = new BloomFilter(Math.max(expectedInsertions, tokens * 2), falsePositiveRate);
+            Map<String, Long> revokedBefore = new ConcurrentHashMap<>();
+            for (RevokedToken revoked : active) {
+                if (revoked.getType() == RevokedToken.Type.ALL_FOR_USER) {
+                    revokedBefore.merge(revoked.getSubject(), revoked.getRevokedAt().toEpochMilli(), Math::max);
+                } else {
+                    filter.put(revoked.getId());
+                }
+            }
+            revokedIds = filter;
+            revokedBeforeBySubject = revokedBefore;
+            // Revocations made here while the snapshot was loading must survive the swap.
+            Instant cutoff = Instant.now().minusSeconds(300);
+            revokedLocally.values().removeIf(at -> at.isBefore(cutoff));
+            revokedLocally.keySet().forEach(filter::put);
+            usersRevokedLocally.values().removeIf(at -> at < cutoff.toEpochMilli());
+            usersRevokedLocally.forEach((email, at) -> revokedBefore.merge(email, at, Math::max));
+            log.debug("Refreshed revocation filter: {} tokens, {} users", tokens, revokedBefore.size());
+        } catch (RuntimeException e) {
+            // Keep serving from the previous snapshot; the next refresh retries.
+            log.error("Failed to refresh token revocations: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.template.service;
+
+import com.template.entity.User;
+import com.template.exception.ServiceUnavailableException;
+import com.template.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * DataLoader-style micro-batcher for principal lookups. Calls arriving within
+ * one batch window (or until the batch is full) are merged into a single
+ * {@code {email: {$in: [...]}, isActive: true}} query and each caller's future
+ * is completed with its own result, a separate {@link User} instance even when
+ * several callers asked for the same email.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserLookupBatcher {
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${auth.user-lookup.batching-enabled:true}")
+    private boolean enabled;
+
+    @Value("${auth.user-lookup.batch-window-micros:1000}")
+    private long batchWindowMicros;
+
+    @Value("${auth.user-lookup.max-batch-size:64}")
+    private int maxBatchSize;
+
+    @Value("${auth.user-lookup.dispatch-threads:4}")
+    private int dispatchThreads;
+
+    @Value("${auth.user-lookup.timeout-millis:5000}")
+    private long timeoutMillis;
+
+    private final Object lock = new Object();
+    private List<PendingLookup> pending = new ArrayList<>();
+    private long generation;
+
+    private ScheduledExecutorService scheduler;
+    private DistributionSummary batchSize;
+    private Timer batchWait;
+
+    @PostConstruct
+    void init() {
+        scheduler = Executors.newScheduledThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "user-lookup-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        batchSize = DistributionSummary.builder("auth.user-lookup.batch.size")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        batchWait = Timer.builder("auth.user-lookup.batch.wait")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdown();
+    }
+
+    public Optional<User> findByEmailAndActive(String email) {
+        if (!enabled) {
+            return userRepository.findByEmailAndActive(email);
+        }
+        PendingLookup lookup = new PendingLookup(email, System.nanoTime(), new CompletableFuture<>());
+        List<PendingLookup> full = null;
+        synchronized (lock) {
+            pending.add(lookup);
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            } else if (pending.size() == 1) {
+                long scheduledGeneration = generation;
+                scheduler.schedule(() -> flush(scheduledGeneration), batchWindowMicros, TimeUnit.MICROSECONDS);
+            }
+        }
+        if (full != null) {
+            // The caller that fills the batch runs the query itself instead of waiting for the timer.
+            dispatch(full);
+        }
+        return await(lookup.result());
+    }
+
+    private void flush(long scheduledGeneration) {
+        List<PendingLookup> batch;
+        synchronized (lock) {
+            if (generation != scheduledGeneration || pending.isEmpty()) {
+                return;
+            }
+            batch = takePending();
+        }
+        dispatch(batch);
+    }
+
+    private List<PendingLookup> takePending() {
+        List<PendingLookup> batch = pending;
+        pending = new ArrayList<>();
+        generation++;
+        return batch;
+    }
+
+    private void dispatch(List<PendingLookup> batch) {
+        long start = System.nanoTime();
+        batchSize.record(batch.size());
+        Set<String> emails = new LinkedHashSet<>();
+        for (PendingLookup lookup : batch) {
+            emails.add(lookup.email());
+            batchWait.record(start - lookup.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+        try {
+            Map<String, User> byEmail = new HashMap<>();
+            for (User user : userRepository.findAllByEmailInAndActive(emails)) {
+                byEmail.put(user.getEmail(), user);
+            }
+            for (PendingLookup lookup : batch) {
+                // Each caller gets its own instance: callers mutate their principal (e.g. the lock overlay)
+                lookup.result().complete(Optional.ofNullable(byEmail.get(lookup.email()))
+                        .map(user -> user.toBuilder().build()));
+            }
+        } catch (RuntimeException e) {
+            log.error("Batched user lookup of {} emails failed: {}", emails.size(), e.getMessage());
+            for (PendingLookup lookup : batch) {
+                lookup.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    private Optional<User> await(CompletableFuture<Optional<User>> result) {
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException("Timed out waiting for batched user lookup");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted waiting for batched user lookup", e);
+        }
+    }
+
+    private record PendingLookup(String email, long enqueuedAt, CompletableFuture<Optional<User>> result) {
+    }
+}
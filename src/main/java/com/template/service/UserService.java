@@ -1,6 +1,8 @@
 package com.template.service;
 
+import com.template.dto.BatchResponse;
 import com.template.dto.UserDTO;
+import com.template.entity.OutboxEvent;
 import com.template.entity.User;
 import com.template.exception.ResourceNotFoundException;
 import com.template.repository.UserRepository;
@@ -8,10 +10,17 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,6 +30,9 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final BatchLookupService batchLookupService;
+    private final OutboxService outboxService;
+    private final MongoTemplate mongoTemplate;
 
     public UserDTO getUserById(String id) {
         log.info("Fetching user with id: {}", id);
@@ -36,34 +48,69 @@ public class UserService {
         return mapToDTO(user);
     }
 
+    public BatchResponse<UserDTO> getUsersByIds(List<String> ids) {
+        log.info("Fetching {} users by id", ids == null ? 0 : ids.size());
+        return batchLookupService.findActiveByIds(ids, userRepository, this::mapToDTO);
+    }
+
     public Page<UserDTO> getAllUsers(Pageable pageable) {
         log.info("Fetching all users");
         Page<User> users = userRepository.findAllActive(pageable);
         return users.map(this::mapToDTO);
     }
 
+    public UserDTO registerUser(User user) {
+        log.info("Registering user with email: {}", user.getEmail());
+        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setRole(User.Role.USER);
+        user.setIsActive(true);
+        return outboxService.inTransaction(() -> {
+            UserDTO saved = mapToDTO(userRepository.save(user));
+            outboxService.append(OutboxEvent.USER, saved.getId(), "UserRegistered", saved);
+            return saved;
+        });
+    }
+
     public UserDTO updateUser(String id, UserDTO userDTO) {
         log.info("Updating user with id: {}", id);
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
-        
-        user.setFirstName(userDTO.getFirstName());
-        user.setLastName(userDTO.getLastName());
-        user.setAddress(userDTO.getAddress());
-        user.setCity(userDTO.getCity());
-        user.setCountry(userDTO.getCountry());
-        user.setPostalCode(userDTO.getPostalCode());
-        
-        User updatedUser = userRepository.save(user);
-        return mapToDTO(updatedUser);
+        Update update = new Update()
+                .set("firstName", userDTO.getFirstName())
+                .set("lastName", userDTO.getLastName())
+                .set("address", userDTO.getAddress())
+                .set("city", userDTO.getCity())
+                .set("country", userDTO.getCountry())
+                .set("postalCode", userDTO.getPostalCode());
+
+        return outboxService.inTransaction(() -> {
+            UserDTO saved = mapToDTO(modify(id, update));
+            outboxService.append(OutboxEvent.USER, id, "UserUpdated", saved);
+            return saved;
+        });
     }
 
     public void deleteUser(String id) {
         log.info("Deleting user with id: {}", id);
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
-        user.setIsActive(false);
-        userRepository.save(user);
+        outboxService.inTransaction(() -> {
+            UserDTO saved = mapToDTO(modify(id, new Update().set("isActive", false)));
+            outboxService.append(OutboxEvent.USER, id, "UserDeleted", saved);
+        });
+    }
+
+    /**
+     * Applies {@code update} to the stored user and returns the result. Only
+     * the given fields are written, so login activity counters written behind
+     * by {@link LoginActivityTracker} are never overwritten with stale values.
+     */
+    private User modify(String id, Update update) {
+        User user = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id)),
+                update.set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                User.class);
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found with id: " + id);
+        }
+        return user;
     }
 
     private UserDTO mapToDTO(User user) {
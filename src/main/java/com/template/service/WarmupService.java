@@ -0,0 +1,232 @@
+package com.template.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.template.dto.ApiResponse;
+import com.template.dto.ProductDTO;
+import com.template.entity.Product;
+import com.template.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the hot request paths synthetically once the application has started,
+ * so the first real requests do not pay for interpreted code, lazily built
+ * Jackson serializers, codec lookups and new Mongo connections.
+ * {@code /health/ready} reports not ready until warm-up has finished.
+ *
+ * <p>Each round signs and verifies a token, reads a page of products on
+ * {@code warmup.concurrency} threads at once (growing the connection pool to
+ * that size), looks up a user, and maps and serializes the results. Warm-up
+ * ends when the median round time of the last {@code warmup.window} rounds is
+ * within {@code warmup.tolerance} of the window before and the JIT spent no
+ * more than that fraction of the window compiling, or after
+ * {@code warmup.max-millis}. Nothing is written.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WarmupService {
+
+    private static final String WARMUP_USER = "warmup@localhost";
+
+    private final JwtService jwtService;
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+    private final UserLookupBatcher userLookupBatcher;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.max-millis:30000}")
+    private long maxMillis;
+
+    @Value("${warmup.min-rounds:20}")
+    private int minRounds;
+
+    @Value("${warmup.window:5}")
+    private int window;
+
+    @Value("${warmup.tolerance:0.1}")
+    private double tolerance;
+
+    @Value("${warmup.concurrency:4}")
+    private int concurrency;
+
+    @Value("${warmup.page-size:20}")
+    private int pageSize;
+
+    @Value("${startup.exit-after-ready:false}")
+    private boolean exitAfterReady;
+
+    private volatile boolean complete;
+    private volatile long startedAt;
+    private volatile long durationMillis = -1;
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        Gauge.builder("warmup.duration", this, s -> s.durationMillis)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        startedAt = System.currentTimeMillis();
+        if (!enabled || exitAfterReady) {
+            durationMillis = 0;
+            complete = true;
+            return;
+        }
+        Thread thread = new Thread(this::run, "warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /** How long warm-up took, how long it has been running so far, or 0 before it has started. */
+    public long getElapsedMillis() {
+        if (complete) {
+            return durationMillis;
+        }
+        long started = startedAt;
+        return started == 0 ? 0 : System.currentTimeMillis() - started;
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxMillis);
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        boolean jitTimed = jit != null && jit.isCompilationTimeMonitoringSupported();
+        long jitStartMillis = jitTimed ? jit.getTotalCompilationTime() : 0;
+
+        UserDetails principal = User.withUsername(WARMUP_USER).password("").authorities(List.of()).build();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("warmup-read-");
+        threadFactory.setDaemon(true);
+        ExecutorService readers = Executors.newFixedThreadPool(concurrency, threadFactory);
+        List<Long> roundNanos = new ArrayList<>();
+        List<Long> jitMillis = new ArrayList<>();
+        String outcome = "time limit reached";
+        int failures = 0;
+        try {
+            while (System.nanoTime() < deadline) {
+                long roundStart = System.nanoTime();
+                try {
+                    round(readers, principal, deadline);
+                } catch (Exception e) {
+                    if (failures++ == 0) {
+                        log.warn("Warm-up round failed, retrying until the time limit: {}", e.getMessage());
+                    }
+                    Thread.sleep(500);
+                    continue;
+                }
+                roundNanos.add(System.nanoTime() - roundStart);
+                jitMillis.add(jitTimed ? jit.getTotalCompilationTime() : 0);
+                if (settled(roundNanos, jitMillis)) {
+                    outcome = "converged";
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = "interrupted";
+        } finally {
+            readers.shutdownNow();
+            durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            complete = true;
+        }
+
+        if (roundNanos.isEmpty()) {
+            log.warn("Warm-up finished in {} ms ({}) without a successful round; {} rounds failed",
+                    durationMillis, outcome, failures);
+            return;
+        }
+        log.info("Warm-up finished in {} ms ({}): {} rounds, round time {} ms first / {} ms last, {} ms JIT compilation{}",
+                durationMillis, outcome, roundNanos.size(),
+                TimeUnit.NANOSECONDS.toMillis(roundNanos.get(0)),
+                TimeUnit.NANOSECONDS.toMillis(roundNanos.get(roundNanos.size() - 1)),
+                jitTimed ? jitMillis.get(jitMillis.size() - 1) - jitStartMillis : -1,
+                failures > 0 ? ", " + failures + " rounds failed" : "");
+    }
+
+    private void round(ExecutorService readers, UserDetails principal, long deadline) throws Exception {
+        String token = jwtService.generateToken(principal);
+        if (!jwtService.isTokenValid(token, principal)) {
+            throw new IllegalStateException("Warm-up token did not verify");
+        }
+
+        List<Future<Page<Product>>> reads = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            reads.add(readers.submit(() -> productRepository.findAllActive(PageRequest.of(0, pageSize))));
+        }
+        userLookupBatcher.findByEmailAndActive(WARMUP_USER);
+        for (Future<Page<Product>> read : reads) {
+            Page<ProductDTO> page = read.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+                    .map(productService::mapToDTO);
+            objectMapper.writeValueAsBytes(new ApiResponse<>(true, "Products retrieved successfully", page));
+        }
+        // The catalog may still be empty; serialize one fully populated product regardless
+        objectMapper.writeValueAsBytes(new ApiResponse<>(true, "Product retrieved successfully", sampleProduct()));
+    }
+
+    private boolean settled(List<Long> roundNanos, List<Long> jitMillis) {
+        int rounds = roundNanos.size();
+        if (rounds < Math.max(minRounds, 2 * window)) {
+            return false;
+        }
+        long recent = median(roundNanos.subList(rounds - window, rounds));
+        long previous = median(roundNanos.subList(rounds - 2 * window, rounds - window));
+        if (Math.abs(recent - previous) > tolerance * previous) {
+            return false;
+        }
+        long windowMillis = TimeUnit.NANOSECONDS.toMillis(
+                roundNanos.subList(rounds - window, rounds).stream().mapToLong(Long::longValue).sum());
+        long compiledMillis = jitMillis.get(rounds - 1) - jitMillis.get(rounds - window - 1);
+        return compiledMillis <= tolerance * Math.max(1, windowMillis);
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        sorted.sort(null);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static ProductDTO sampleProduct() {
+        LocalDateTime now = LocalDateTime.now();
+        return ProductDTO.builder()
+                .id("000000000000000000000000")
+                .name("Warm-up")
+                .description("Warm-up")
+                .price(new BigDecimal("9.99"))
+                .quantity(1)
+                .category("warmup")
+                .imageUrl("https://localhost/warmup.png")
+                .sku("WARMUP")
+                .createdAt(now)
+                .updatedAt(now)
+                .isActive(true)
+                .build();
+    }
+}
@@ -0,0 +1,220 @@
+package com.template.controller;
+
+import com.mongodb.client.MongoClient;
+import com.template.entity.Product;
+import com.template.entity.User;
+import com.template.repository.ProductRepository;
+import com.template.repository.UserRepository;
+import com.template.service.JwtService;
+import com.template.service.MongoExplain;
+import com.template.support.MongoCommandRecorder;
+import com.template.support.MongoCommandRecorder.RecordedCommand;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of Mongo round trips and documents examined per request on
+ * the hot endpoints, so an added lookup, a lost index or an N+1 shows up as a
+ * test failure instead of as latency in production. Each endpoint is called
+ * once to warm caches and then once under recording; every recorded read is
+ * re-run with {@code explain} to check docs examined and that no collection
+ * scan won.
+ *
+ * <p>Needs Docker for the Mongo container. Skipped without it locally; under
+ * the {@code ci} profile a missing Docker fails the build.
+ */
+@SpringBootTest(properties = {
+        "cache.invalidation.enabled=false",
+        "outbox.dispatcher.enabled=false",
+        "category-stats.enabled=false",
+        "rate-limit.enabled=false",
+        "revocation.refresh-interval-millis=3600000",
+        "product.query.index-refresh-interval-millis=3600000",
+        "migration.enabled=false",
+        "login-activity.enabled=false",
+        "warmup.enabled=false",
+        "startup.report.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Testcontainers
+@EnabledIf("com.template.support.DockerRequirement#dockerAvailableOrRequired")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MongoRoundTripBudgetTest {
+
+    private static final String EMAIL = "budget@example.com";
+    private static final String PASSWORD = "budget-password";
+    private static final long DOCS_EXAMINED_BUDGET = 10;
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @TestConfiguration
+    static class RecorderConfig {
+
+        @Bean
+        MongoCommandRecorder mongoCommandRecorder() {
+            return new MongoCommandRecorder();
+        }
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer mongoCommandRecorderCustomizer(MongoCommandRecorder recorder) {
+            return settings -> settings.addCommandListener(recorder);
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MongoCommandRecorder recorder;
+
+    @Autowired
+    private MongoClient mongoClient;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private String bearer;
+
+    @BeforeAll
+    void seed() {
+        User user = User.builder()
+                .id("budget-user")
+                .email(EMAIL)
+                .password(passwordEncoder.encode(PASSWORD))
+                .firstName("Budget")
+                .lastName("User")
+                .role(User.Role.USER)
+                .emailVerified(true)
+                .isActive(true)
+                .build();
+        userRepository.save(user);
+
+        productRepository.saveAll(List.of(
+                product("budget-p1", "Wireless Mouse", "electronics", "24.99", 10),
+                product("budget-p2", "USB-C Hub", "electronics", "39.50", 4),
+                product("budget-p3", "Clean Code", "books", "31.00", 7)));
+
+        bearer = "Bearer " + jwtService.generateToken(user);
+    }
+
+    Stream<Arguments> endpoints() {
+        return Stream.of(
+                budget("health", 0, () -> get("/health")),
+                // AuthenticationManager lookup plus the controller's own findByEmailAndActive.
+                budget("login", 2, () -> post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + EMAIL + "\",\"password\":\"" + PASSWORD + "\"}")),
+                budget("product by id", 2, () -> authed(get("/products/budget-p1"))),
+                // A first page shorter than the page size needs no count query.
+                budget("product list", 2, () -> authed(get("/products"))),
+                budget("category", 2, () -> authed(get("/products/category/electronics"))),
+                budget("in stock", 2, () -> authed(get("/products/in-stock"))),
+                budget("batch by ids", 2, () -> authed(get("/products/batch").param("ids", "budget-p1,budget-p2"))),
+                budget("filter query", 3, () -> authed(get("/products/query").param("filter", "category:eq:electronics"))),
+                budget("browse", 3, () -> authed(get("/products/browse").param("category", "electronics"))));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("endpoints")
+    void staysWithinRoundTripBudget(String endpoint, int roundTripBudget, RequestSupplier request) throws Exception {
+        mockMvc.perform(request.get()).andExpect(status().isOk());
+
+        List<RecordedCommand> commands;
+        recorder.start();
+        try {
+            mockMvc.perform(request.get()).andExpect(status().isOk());
+        } finally {
+            commands = recorder.stop();
+        }
+        assertWithinBudget(endpoint, roundTripBudget, commands);
+    }
+
+    private void assertWithinBudget(String endpoint, int roundTripBudget, List<RecordedCommand> commands) {
+        String recorded = commands.stream().map(RecordedCommand::toString).collect(Collectors.joining(", ", "[", "]"));
+        assertThat(commands)
+                .as("%s: %d Mongo round trips over a budget of %d: %s", endpoint, commands.size(), roundTripBudget, recorded)
+                .hasSizeLessThanOrEqualTo(roundTripBudget);
+
+        for (RecordedCommand command : commands) {
+            if (!MongoExplain.EXPLAINABLE.contains(command.name())) {
+                continue;
+            }
+            MongoExplain.Summary result = MongoExplain.explain(mongoClient, command.database(), command.command());
+            assertThat(result.collectionScan())
+                    .as("%s: %s used a collection scan: %s", endpoint, command, command.command().toJson())
+                    .isFalse();
+            assertThat(result.docsExamined())
+                    .as("%s: %s examined %d documents: %s", endpoint, command, result.docsExamined(), command.command().toJson())
+                    .isLessThanOrEqualTo(DOCS_EXAMINED_BUDGET);
+        }
+    }
+
+    private RequestBuilder authed(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, bearer);
+    }
+
+    private static Arguments budget(String endpoint, int roundTrips, RequestSupplier request) {
+        return Arguments.of(endpoint, roundTrips, request);
+    }
+
+    private static Product product(String id, String name, String category, String price, int quantity) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .description(name)
+                .price(new BigDecimal(price))
+                .quantity(quantity)
+                .category(category)
+                .sku(id.toUpperCase())
+                .isActive(true)
+                .build();
+    }
+
+    @FunctionalInterface
+    interface RequestSupplier {
+        RequestBuilder get();
+    }
+}
@@ -0,0 +1,61 @@
+package com.template.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CalibratedBCryptPasswordEncoderTest {
+
+    private final CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+    @Test
+    void upgradesHashesBelowTheCurrentCost() {
+        assertThat(encoder.upgradeEncoding(hash(4))).isTrue();
+    }
+
+    @Test
+    void keepsHashesAtTheCurrentCost() {
+        assertThat(encoder.upgradeEncoding(hash(5))).isFalse();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+    }
+
+    @Test
+    void neverDowngradesHashesAboveTheCurrentCost() {
+        assertThat(encoder.upgradeEncoding(hash(6))).isFalse();
+        assertThat(encoder.upgradeEncoding(hash(8))).isFalse();
+    }
+
+    @Test
+    void readsTheCostFromEveryBCryptPrefix() {
+        String hash = hash(4).substring(4);
+
+        assertThat(encoder.upgradeEncoding("$2a$04$" + hash)).isTrue();
+        assertThat(encoder.upgradeEncoding("$2b$04$" + hash)).isTrue();
+        assertThat(encoder.upgradeEncoding("$2y$04$" + hash)).isTrue();
+        assertThat(encoder.upgradeEncoding("$2b$05$" + hash)).isFalse();
+        assertThat(encoder.upgradeEncoding("$2y$06$" + hash)).isFalse();
+    }
+
+    @Test
+    void upgradesAnythingThatIsNotABCryptHash() {
+        assertThat(encoder.upgradeEncoding("plaintext")).isTrue();
+        assertThat(encoder.upgradeEncoding("")).isTrue();
+        assertThat(encoder.upgradeEncoding("$2a$5$short")).isTrue();
+    }
+
+    @Test
+    void doesNotUpgradeAMissingHash() {
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+    }
+
+    @Test
+    void calibrationStaysWithinTheGivenBounds() {
+        assertThat(CalibratedBCryptPasswordEncoder.calibrate(0, 4, 6)).isEqualTo(4);
+        assertThat(CalibratedBCryptPasswordEncoder.calibrate(Long.MAX_VALUE, 4, 6)).isEqualTo(6);
+    }
+
+    private static String hash(int cost) {
+        return new BCryptPasswordEncoder(cost).encode("secret");
+    }
+}
@@ -0,0 +1,67 @@
+package com.template.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRegistryTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+    private static final long START = 1_000 * MINUTE;
+
+    @Test
+    void newKeysGetTheirOwnBucketOnceTheRegistryIsFull() {
+        TokenBucketRegistry registry = new TokenBucketRegistry(5, MINUTE, 100);
+        for (int i = 0; i < 100; i++) {
+            registry.tryAcquire("flood-" + i, START);
+        }
+
+        for (int user = 0; user < 10; user++) {
+            for (int attempt = 0; attempt < 5; attempt++) {
+                assertThat(registry.tryAcquire("user-" + user, START + 1)).as("user %d attempt %d", user, attempt).isZero();
+            }
+            assertThat(registry.tryAcquire("user-" + user, START + 1)).isPositive();
+        }
+    }
+
+    @Test
+    void staysNearItsBoundUnderAFloodOfDistinctKeys() {
+        TokenBucketRegistry registry = new TokenBucketRegistry(5, MINUTE, 100);
+        for (int i = 0; i < 10_000; i++) {
+            registry.tryAcquire("flood-" + i, START + i);
+        }
+
+        assertThat(registry.size()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedKeysFirst() {
+        TokenBucketRegistry registry = new TokenBucketRegistry(1, MINUTE, 10);
+        registry.tryAcquire("active", START);
+        for (int i = 0; i < 9; i++) {
+            registry.tryAcquire("idle-" + i, START + 1);
+        }
+        registry.tryAcquire("active", START + 2);
+
+        registry.tryAcquire("newcomer", START + 3);
+
+        // Still tracked, so still throttled
+        assertThat(registry.tryAcquire("active", START + 4)).isPositive();
+    }
+
+    @Test
+    void dropsRefilledBucketsBeforeDrainingOnes() {
+        TokenBucketRegistry registry = new TokenBucketRegistry(1, MINUTE, 10);
+        registry.tryAcquire("draining", START + MINUTE);
+        for (int i = 0; i < 9; i++) {
+            registry.tryAcquire("refilled-" + i, START);
+        }
+
+        registry.tryAcquire("newcomer", START + MINUTE + 1);
+
+        assertThat(registry.size()).isEqualTo(2);
+        assertThat(registry.tryAcquire("draining", START + MINUTE + 2)).isPositive();
+    }
+}
@@ -0,0 +1,105 @@
+package com.template.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long START = 1_000 * SECOND;
+
+    @Test
+    void allowsABurstOfCapacityThenReportsTheWait() {
+        TokenBucket bucket = new TokenBucket(3, 3 * SECOND, START);
+
+        assertThat(bucket.tryAcquire(START)).isZero();
+        assertThat(bucket.tryAcquire(START)).isZero();
+        assertThat(bucket.tryAcquire(START)).isZero();
+        assertThat(bucket.tryAcquire(START)).isEqualTo(SECOND);
+        assertThat(bucket.tryAcquire(START + SECOND / 4)).isEqualTo(3 * SECOND / 4);
+    }
+
+    @Test
+    void refillsOneTokenPerEmissionInterval() {
+        TokenBucket bucket = new TokenBucket(3, 3 * SECOND, START);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(START);
+        }
+
+        assertThat(bucket.tryAcquire(START + SECOND)).isZero();
+        assertThat(bucket.tryAcquire(START + SECOND)).isPositive();
+        assertThat(bucket.tryAcquire(START + 3 * SECOND)).isZero();
+        assertThat(bucket.tryAcquire(START + 3 * SECOND)).isZero();
+        assertThat(bucket.tryAcquire(START + 3 * SECOND)).isPositive();
+    }
+
+    @Test
+    void rejectedAttemptsDoNotConsumeTokens() {
+        TokenBucket bucket = new TokenBucket(1, SECOND, START);
+        bucket.tryAcquire(START);
+        for (int i = 0; i < 100; i++) {
+            assertThat(bucket.tryAcquire(START + SECOND / 2)).isPositive();
+        }
+
+        assertThat(bucket.tryAcquire(START + SECOND)).isZero();
+    }
+
+    @Test
+    void idleTimeDoesNotBankMoreThanCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 2 * SECOND, START);
+        long later = START + 3600 * SECOND;
+
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isPositive();
+    }
+
+    @Test
+    void isFullOnceEveryTokenHasRefilled() {
+        TokenBucket bucket = new TokenBucket(2, 2 * SECOND, START);
+        assertThat(bucket.isFull(START)).isTrue();
+
+        bucket.tryAcquire(START);
+        assertThat(bucket.isFull(START)).isFalse();
+        assertThat(bucket.isFull(START + SECOND / 2)).isFalse();
+        assertThat(bucket.isFull(START + SECOND)).isTrue();
+    }
+
+    @Test
+    void concurrentCallersNeverTakeMoreThanCapacity() throws Exception {
+        TokenBucket bucket = new TokenBucket(50, 50 * SECOND, START);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            for (int t = 0; t < 8; t++) {
+                threads.execute(() -> {
+                    try {
+                        go.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < 100; i++) {
+                        if (bucket.tryAcquire(START) == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            go.countDown();
+        } finally {
+            threads.shutdown();
+            assertThat(threads.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(granted).hasValue(50);
+    }
+}
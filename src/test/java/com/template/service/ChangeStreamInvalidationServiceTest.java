@@ -0,0 +1,222 @@
+package com.template.service;
+
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.template.entity.ChangeStreamCheckpoint;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@link ChangeStreamInvalidationService} against a single-node replica
+ * set (change streams) and a standalone mongod (polling fallback): resume
+ * token checkpointing across a restart, invalidate-all when the resume point
+ * has left the oplog, and a poller that does not skip documents sharing an
+ * {@code updatedAt} across a page boundary.
+ *
+ * <p>Needs Docker for the Mongo containers; skipped without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ChangeStreamInvalidationServiceTest {
+
+    private static final String COLLECTION = "products";
+    private static final String INSTANCE = "test-instance";
+    private static final Duration TIMEOUT = Duration.ofSeconds(20);
+
+    @Container
+    static MongoDBContainer replicaSet = new MongoDBContainer("mongo:7.0");
+
+    @Container
+    static GenericContainer<?> standalone = new GenericContainer<>("mongo:7.0").withExposedPorts(27017);
+
+    private final RecordingListener listener = new RecordingListener();
+    private final List<MongoClient> clients = new ArrayList<>();
+    private ChangeStreamInvalidationService service;
+
+    @BeforeEach
+    void reset() {
+        listener.ids.clear();
+        listener.invalidatedAll.clear();
+    }
+
+    @AfterEach
+    void shutdown() {
+        if (service != null) {
+            service.stop();
+        }
+        clients.forEach(MongoClient::close);
+        clients.clear();
+    }
+
+    @Test
+    void publishesChangesAndResumesFromTheCheckpointAfterARestart() {
+        MongoTemplate mongoTemplate = template(replicaSet.getReplicaSetUrl());
+        service = start(mongoTemplate, 500);
+
+        String first = insert(mongoTemplate, new Date());
+        await(() -> listener.ids.contains(first));
+        await(() -> resumeToken(mongoTemplate) != null);
+
+        service.stop();
+        // Let the old worker's tryNext (max await 1 s) return so it cannot see the next insert
+        sleep(1500);
+        listener.ids.clear();
+        String whileStopped = insert(mongoTemplate, new Date());
+        service = start(mongoTemplate, 500);
+
+        await(() -> listener.ids.contains(whileStopped));
+        assertThat(listener.invalidatedAll).isEmpty();
+    }
+
+    @Test
+    void invalidatesEverythingWhenTheResumePointIsNoLongerInTheOplog() {
+        MongoTemplate mongoTemplate = template(replicaSet.getReplicaSetUrl());
+        mongoTemplate.save(ChangeStreamCheckpoint.builder()
+                .id(ChangeStreamInvalidationService.checkpointId(COLLECTION, INSTANCE))
+                .collection(COLLECTION)
+                .instanceId(INSTANCE)
+                .resumeToken(expiredResumeToken(mongoTemplate).toJson())
+                .updatedAt(Instant.now())
+                .build());
+
+        service = start(mongoTemplate, 500);
+
+        await(() -> listener.invalidatedAll.contains(COLLECTION));
+        String after = insert(mongoTemplate, new Date());
+        await(() -> listener.ids.contains(after));
+    }
+
+    @Test
+    void pollerPublishesEveryDocumentSharingATimestampAcrossPages() {
+        MongoTemplate mongoTemplate = template("mongodb://" + standalone.getHost() + ":" + standalone.getMappedPort(27017));
+        mongoTemplate.save(ChangeStreamCheckpoint.builder()
+                .id(ChangeStreamInvalidationService.checkpointId(COLLECTION, INSTANCE))
+                .collection(COLLECTION)
+                .instanceId(INSTANCE)
+                .lastPolledAt(Instant.EPOCH)
+                .updatedAt(Instant.now())
+                .build());
+        Date shared = new Date();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(insert(mongoTemplate, shared));
+        }
+
+        service = start(mongoTemplate, 2);
+
+        await(() -> listener.ids.containsAll(ids));
+        await(() -> {
+            ChangeStreamCheckpoint checkpoint = mongoTemplate.findById(
+                    ChangeStreamInvalidationService.checkpointId(COLLECTION, INSTANCE), ChangeStreamCheckpoint.class);
+            return checkpoint != null && new ObjectId(ids.get(4)).equals(checkpoint.getLastPolledId());
+        });
+    }
+
+    private MongoTemplate template(String url) {
+        MongoClient client = MongoClients.create(url);
+        clients.add(client);
+        MongoTemplate mongoTemplate = new MongoTemplate(client, "invalidation-" + System.nanoTime());
+        mongoTemplate.createCollection(COLLECTION);
+        return mongoTemplate;
+    }
+
+    private ChangeStreamInvalidationService start(MongoTemplate mongoTemplate, int pollBatchSize) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("recorder", listener));
+        ChangeStreamInvalidationService started = new ChangeStreamInvalidationService(
+                mongoTemplate, beans.getBeanProvider(CacheInvalidationListener.class));
+        ReflectionTestUtils.setField(started, "enabled", true);
+        ReflectionTestUtils.setField(started, "instanceId", INSTANCE);
+        ReflectionTestUtils.setField(started, "collections", List.of(COLLECTION));
+        ReflectionTestUtils.setField(started, "checkpointIntervalMillis", 100L);
+        ReflectionTestUtils.setField(started, "pollIntervalMillis", 100L);
+        ReflectionTestUtils.setField(started, "pollBatchSize", pollBatchSize);
+        started.start();
+        return started;
+    }
+
+    private static String insert(MongoTemplate mongoTemplate, Date updatedAt) {
+        ObjectId id = new ObjectId();
+        mongoTemplate.getCollection(COLLECTION).insertOne(new Document("_id", id).append("updatedAt", updatedAt));
+        return id.toHexString();
+    }
+
+    private static String resumeToken(MongoTemplate mongoTemplate) {
+        ChangeStreamCheckpoint checkpoint = mongoTemplate.findById(
+                ChangeStreamInvalidationService.checkpointId(COLLECTION, INSTANCE), ChangeStreamCheckpoint.class);
+        return checkpoint == null ? null : checkpoint.getResumeToken();
+    }
+
+    /**
+     * A real high-water-mark token with its cluster time (the 8 bytes after
+     * the leading 0x82) rewound to before the oplog starts.
+     */
+    private static BsonDocument expiredResumeToken(MongoTemplate mongoTemplate) {
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = mongoTemplate.getCollection(COLLECTION)
+                .watch()
+                .maxAwaitTime(100, TimeUnit.MILLISECONDS)
+                .cursor()) {
+            cursor.tryNext();
+            String data = cursor.getResumeToken().getString("_data").getValue();
+            return new BsonDocument("_data", new BsonString(data.substring(0, 2) + "0000000100000001" + data.substring(18)));
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", TIMEOUT).isLessThan(deadline);
+            sleep(50);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class RecordingListener implements CacheInvalidationListener {
+
+        private final Set<String> ids = ConcurrentHashMap.newKeySet();
+        private final Set<String> invalidatedAll = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void invalidate(String collection, String id) {
+            ids.add(id);
+        }
+
+        @Override
+        public void invalidateAll(String collection) {
+            invalidatedAll.add(collection);
+        }
+    }
+}
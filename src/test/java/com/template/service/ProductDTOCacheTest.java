@@ -0,0 +1,93 @@
+package com.template.service;
+
+import com.template.dto.ProductDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductDTOCacheTest {
+
+    private final ProductDTOCache cache = new ProductDTOCache();
+    private final List<List<String>> loads = new ArrayList<>();
+    private final AtomicInteger version = new AtomicInteger();
+
+    ProductDTOCacheTest() {
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+    }
+
+    @Test
+    void loadsMissesOnceAndServesThemFromTheCacheAfterwards() {
+        assertThat(names(cache.getAll(List.of("a", "b"), this::load))).containsExactly("a-1", "b-1");
+        assertThat(names(cache.getAll(List.of("b", "c", "a"), this::load))).containsExactly("b-1", "c-2", "a-1");
+
+        assertThat(loads).containsExactly(List.of("a", "b"), List.of("c"));
+    }
+
+    @Test
+    void skipsIdsTheLoaderDoesNotFindAndRetriesThemLater() {
+        assertThat(names(cache.getAll(List.of("a", "missing"), this::load))).containsExactly("a-1");
+        cache.getAll(List.of("missing"), this::load);
+
+        assertThat(loads).containsExactly(List.of("a", "missing"), List.of("missing"));
+    }
+
+    @Test
+    void doesNotCacheALoadThatRacedWithAnEviction() {
+        List<ProductDTO> first = cache.getAll(List.of("a"), ids -> {
+            List<ProductDTO> stale = load(ids);
+            cache.evict("a");
+            return stale;
+        });
+
+        assertThat(names(first)).containsExactly("a-1");
+        assertThat(names(cache.getAll(List.of("a"), this::load))).containsExactly("a-2");
+    }
+
+    @Test
+    void doesNotCacheALoadThatRacedWithInvalidateAll() {
+        cache.getAll(List.of("a"), ids -> {
+            List<ProductDTO> stale = load(ids);
+            cache.invalidateAll("products");
+            return stale;
+        });
+
+        assertThat(names(cache.getAll(List.of("a"), this::load))).containsExactly("a-2");
+    }
+
+    @Test
+    void aFailedLoadLeavesNothingBehind() {
+        assertThatThrownBy(() -> cache.getAll(List.of("a"), ids -> {
+            throw new IllegalStateException("down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(names(cache.getAll(List.of("a"), this::load))).containsExactly("a-1");
+    }
+
+    @Test
+    void evictDropsTheCachedEntry() {
+        cache.getAll(List.of("a"), this::load);
+
+        cache.evict("a");
+
+        assertThat(names(cache.getAll(List.of("a"), this::load))).containsExactly("a-2");
+    }
+
+    private List<ProductDTO> load(List<String> ids) {
+        loads.add(List.copyOf(ids));
+        int current = version.incrementAndGet();
+        return ids.stream()
+                .filter(id -> !id.equals("missing"))
+                .map(id -> ProductDTO.builder().id(id).name(id + "-" + current).build())
+                .toList();
+    }
+
+    private static List<String> names(List<ProductDTO> products) {
+        return products.stream().map(ProductDTO::getName).toList();
+    }
+}
@@ -0,0 +1,64 @@
+package com.template.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.IndexField;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductQueryServiceTest {
+
+    private static final List<IndexField> ACTIVE_CATEGORY_PRICE = List.of(
+            asc("isActive"), asc("category"), asc("price"));
+    private static final List<IndexField> ACTIVE_CATEGORY_CREATED = List.of(
+            asc("isActive"), asc("category"), IndexField.create("createdAt", Sort.Direction.DESC));
+
+    @Test
+    void servesEqualityPrefixWithRangeAfterIt() {
+        assertThat(ProductQueryService.serves(ACTIVE_CATEGORY_PRICE,
+                Set.of("isActive", "category"), List.of(), Set.of("price"))).isTrue();
+    }
+
+    @Test
+    void servesARangeOnTheFieldThatIsAlsoTheSortKey() {
+        assertThat(ProductQueryService.serves(ACTIVE_CATEGORY_PRICE,
+                Set.of("isActive", "category"), List.of(Sort.Order.asc("price")), Set.of("price"))).isTrue();
+        assertThat(ProductQueryService.serves(ACTIVE_CATEGORY_PRICE,
+                Set.of("isActive", "category"), List.of(Sort.Order.desc("price")), Set.of("price"))).isTrue();
+    }
+
+    @Test
+    void doesNotServeARangeMissingFromTheIndex() {
+        assertThat(ProductQueryService.serves(ACTIVE_CATEGORY_CREATED,
+                Set.of("isActive", "category"), List.of(Sort.Order.desc("createdAt")), Set.of("price"))).isFalse();
+        assertThat(ProductQueryService.serves(ACTIVE_CATEGORY_PRICE,
+                Set.of("isActive", "category"), List.of(Sort.Order.asc("price")), Set.of("quantity"))).isFalse();
+    }
+
+    @Test
+    void servesASortInIndexOrderOrFullyReversed() {
+        Set<String> equality = Set.of("isActive", "category");
+
+        assertThat(ProductQueryService.serves(ACTIVE_CATEGORY_CREATED, equality,
+                List.of(Sort.Order.desc("createdAt")), Set.of())).isTrue();
+        assertThat(ProductQueryService.serves(ACTIVE_CATEGORY_CREATED, equality,
+                List.of(Sort.Order.asc("createdAt")), Set.of())).isTrue();
+        assertThat(ProductQueryService.serves(ACTIVE_CATEGORY_CREATED, equality,
+                List.of(Sort.Order.asc("price")), Set.of())).isFalse();
+    }
+
+    @Test
+    void doesNotServeWhenTheEqualityFieldsAreNotTheIndexPrefix() {
+        assertThat(ProductQueryService.serves(ACTIVE_CATEGORY_PRICE,
+                Set.of("isActive", "price"), List.of(), Set.of())).isFalse();
+        assertThat(ProductQueryService.serves(ACTIVE_CATEGORY_PRICE,
+                Set.of("isActive", "quantity"), List.of(), Set.of())).isFalse();
+    }
+
+    private static IndexField asc(String key) {
+        return IndexField.create(key, Sort.Direction.ASC);
+    }
+}
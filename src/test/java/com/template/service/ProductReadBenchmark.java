@@ -0,0 +1,172 @@
+package com.template.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.template.config.MongoConfig;
+import com.template.dto.ApiResponse;
+import com.template.dto.ProductDTO;
+import com.template.entity.Product;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a page of products serialized through the regular read path
+ * (BSON -> Document -> Product -> ProductDTO -> ApiResponse -> JSON) with the
+ * raw-BSON passthrough. Network and driver decoding of the reply are common
+ * to both and excluded; the input is the raw documents as the driver hands
+ * them over.
+ *
+ * <p>Run with the GC profiler to get allocation rate per operation:
+ * <pre>
+ * mvn -q test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath com.template.service.ProductReadBenchmark"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductReadBenchmark {
+
+    @Param({"1", "20", "100"})
+    private int pageSize;
+
+    private List<RawBsonDocument> page;
+    private Pageable pageable;
+    private MappingMongoConverter converter;
+    private ObjectMapper objectMapper;
+    private final DocumentCodec documentCodec = new DocumentCodec();
+    private final OutputStream sink = new DiscardingOutputStream();
+
+    @Setup
+    public void setUp() {
+        page = new ArrayList<>(pageSize);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < pageSize; i++) {
+            Document product = new Document("_id", new ObjectId())
+                    .append("name", "Wireless Mouse " + i)
+                    .append("description", "Ergonomic 2.4GHz wireless mouse with \"silent\" clicks")
+                    .append("price", new Decimal128(new BigDecimal("24.99")))
+                    .append("quantity", 10 + i)
+                    .append("category", "electronics")
+                    .append("imageUrl", "https://cdn.example.com/products/" + i + ".jpg")
+                    .append("sku", "MOUSE-" + i)
+                    .append("createdAt", new Date(now - i * 60_000L))
+                    .append("updatedAt", new Date(now))
+                    .append("isActive", true)
+                    .append("_class", Product.class.getName());
+            page.add(new RawBsonDocument(product, documentCodec));
+        }
+        pageable = PageRequest.of(0, pageSize);
+
+        MongoCustomConversions conversions = new MongoConfig().customConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Benchmark
+    public void entityAndDto() throws IOException {
+        List<ProductDTO> products = new ArrayList<>(page.size());
+        for (RawBsonDocument raw : page) {
+            Product product = converter.read(Product.class, raw.decode(documentCodec));
+            products.add(mapToDTO(product));
+        }
+        PageImpl<ProductDTO> result = new PageImpl<>(products, pageable, 1000);
+        objectMapper.writeValue(sink, new ApiResponse<>(true, "Products retrieved successfully", result));
+    }
+
+    @Benchmark
+    public void rawPassthrough() throws IOException {
+        RawProductJsonWriter writer = new RawProductJsonWriter(ZoneId.systemDefault());
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(sink, JsonEncoding.UTF8)) {
+            writer.writeEnvelopeStart(gen, "Products retrieved successfully");
+            int count = writer.writePageContent(gen, page.iterator());
+            writer.writePageMetadata(gen, pageable, count, 1000);
+            writer.writeEnvelopeEnd(gen);
+        }
+    }
+
+    /** Same mapping as {@code ProductService#mapToDTO}. */
+    private static ProductDTO mapToDTO(Product product) {
+        return ProductDTO.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .quantity(product.getQuantity())
+                .category(product.getCategory())
+                .imageUrl(product.getImageUrl())
+                .sku(product.getSku())
+                .createdAt(product.getCreatedAt())
+                .updatedAt(product.getUpdatedAt())
+                .isActive(product.getIsActive())
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ProductReadBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+    private static final class DiscardingOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.template.service;
+
+import com.template.dto.ProductSuggestionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSuggestIndexTest {
+
+    private final ProductSuggestIndex index = new ProductSuggestIndex(3, 4);
+
+    @Test
+    void findsProductsFromEveryWordStartAndSku() {
+        index.put(product("p1", "Wireless Mouse", "WM-100"), 5);
+
+        assertThat(ids(index.suggest("wire", 10))).containsExactly("p1");
+        assertThat(ids(index.suggest("mou", 10))).containsExactly("p1");
+        assertThat(ids(index.suggest("wm 1", 10))).containsExactly("p1");
+        assertThat(ids(index.suggest("keyboard", 10))).isEmpty();
+        assertThat(index.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void normalizesCaseAccentsAndSeparators() {
+        index.put(product("p1", "Café-Crème Maker", null), 1);
+
+        assertThat(ids(index.suggest("CAFE CR", 10))).containsExactly("p1");
+        assertThat(ProductSuggestIndex.normalize("  Über--Crème! ")).isEqualTo("uber creme");
+    }
+
+    @Test
+    void ranksByScoreAndKeepsOnlyTopK() {
+        index.put(product("p1", "Mouse Pad", null), 1);
+        index.put(product("p2", "Mouse", null), 7);
+        index.put(product("p3", "Mouse Trap", null), 3);
+        index.put(product("p4", "Mouse Bungee", null), 5);
+
+        assertThat(ids(index.suggest("mo", 10))).containsExactly("p2", "p4", "p3");
+        assertThat(ids(index.suggest("mo", 2))).containsExactly("p2", "p4");
+    }
+
+    @Test
+    void reRanksWhenAProductIsPutAgain() {
+        index.put(product("p1", "Mouse Pad", null), 1);
+        index.put(product("p2", "Mouse", null), 7);
+        index.put(product("p3", "Mouse Trap", null), 3);
+        index.put(product("p4", "Mouse Bungee", null), 5);
+
+        index.put(product("p1", "Mouse Pad", null), 10);
+
+        assertThat(ids(index.suggest("mo", 10))).containsExactly("p1", "p2", "p4");
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void listsAProductOnceWhenSeveralOfItsTermsShareAPrefix() {
+        index.put(product("p1", "Mini Mouse", "MM-1"), 1);
+
+        assertThat(ids(index.suggest("m", 10))).containsExactly("p1");
+    }
+
+    @Test
+    void removeDropsTheProductAndBringsBackTheNextBest() {
+        index.put(product("p1", "Mouse Pad", null), 1);
+        index.put(product("p2", "Mouse", null), 7);
+        index.put(product("p3", "Mouse Trap", null), 3);
+        index.put(product("p4", "Mouse Bungee", null), 5);
+
+        index.remove("p2");
+
+        assertThat(ids(index.suggest("mo", 10))).containsExactly("p4", "p3", "p1");
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void removeUnlinksNodesLeftEmpty() {
+        index.put(product("p1", "Mouse", null), 1);
+        int withOne = index.nodes();
+        index.put(product("p2", "Keyboard", null), 1);
+
+        index.remove("p2");
+
+        assertThat(index.nodes()).isEqualTo(withOne);
+        assertThat(index.suggest("k", 10)).isEmpty();
+
+        index.remove("p1");
+
+        assertThat(index.nodes()).isEqualTo(1);
+        assertThat(index.size()).isZero();
+        index.remove("p1");
+    }
+
+    @Test
+    void renamingMovesTheProductToItsNewTerms() {
+        index.put(product("p1", "Mouse", null), 1);
+
+        index.put(product("p1", "Trackball", null), 1);
+
+        assertThat(index.suggest("mouse", 10)).isEmpty();
+        assertThat(ids(index.suggest("track", 10))).containsExactly("p1");
+    }
+
+    @Test
+    void filtersPrefixesLongerThanMaxDepthByTheFullText() {
+        index.put(product("p1", "Mousepad", null), 2);
+        index.put(product("p2", "Mouse Trap", null), 1);
+
+        // Both end at the node for "mous"; only the full term decides between them
+        assertThat(ids(index.suggest("mous", 10))).containsExactly("p1", "p2");
+        assertThat(ids(index.suggest("mousep", 10))).containsExactly("p1");
+        assertThat(ids(index.suggest("mouse t", 10))).containsExactly("p2");
+        assertThat(index.suggest("mousex", 10)).isEmpty();
+    }
+
+    private static ProductSuggestionDTO product(String id, String name, String sku) {
+        return ProductSuggestionDTO.builder().id(id).name(name).sku(sku).quantity(1).build();
+    }
+
+    private static List<String> ids(List<ProductSuggestionDTO> suggestions) {
+        return suggestions.stream().map(ProductSuggestionDTO::getId).toList();
+    }
+}
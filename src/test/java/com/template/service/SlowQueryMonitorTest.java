@@ -0,0 +1,99 @@
+package com.template.service;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryMonitorTest {
+
+    @Test
+    void replacesLiteralsSoQueriesDifferingOnlyInValuesShareAShape() {
+        String books = shape("find", "{find: 'products', filter: {category: 'books', price: {$gte: 10}}}");
+        String toys = shape("find", "{find: 'products', filter: {category: 'toys', price: {$gte: 99.5}}}");
+
+        assertThat(books).isEqualTo(toys);
+        assertThat(books).isEqualTo(json("{find: 'products', filter: {category: '?', price: {$gte: '?'}}}"));
+    }
+
+    @Test
+    void differentFieldsOrOperatorsAreDifferentShapes() {
+        assertThat(shape("find", "{find: 'products', filter: {category: 'books'}}"))
+                .isNotEqualTo(shape("find", "{find: 'products', filter: {sku: 'books'}}"))
+                .isNotEqualTo(shape("find", "{find: 'products', filter: {category: {$ne: 'books'}}}"))
+                .isNotEqualTo(shape("find", "{find: 'users', filter: {category: 'books'}}"));
+    }
+
+    @Test
+    void keepsSortProjectionAndHintValues() {
+        String shape = shape("find", "{find: 'products', filter: {quantity: 3}, sort: {price: -1, _id: 1},"
+                + " projection: {name: 1, price: 1}, hint: 'category_1_price_1'}");
+
+        assertThat(shape).isEqualTo(json("{find: 'products', filter: {quantity: '?'}, sort: {price: -1, _id: 1},"
+                + " projection: {name: 1, price: 1}, hint: 'category_1_price_1'}"));
+    }
+
+    @Test
+    void collapsesInListsOfAnyLengthButKeepsLogicalBranches() {
+        String two = shape("find", "{find: 'products', filter: {$or: [{category: {$in: ['a', 'b']}}, {quantity: 0}]}}");
+        String three = shape("find", "{find: 'products', filter: {$or: [{category: {$in: ['a', 'b', 'c']}}, {quantity: 5}]}}");
+
+        assertThat(two).isEqualTo(three);
+        assertThat(two).isEqualTo(json("{find: 'products', filter: {$or: [{category: {$in: ['?']}}, {quantity: '?'}]}}"));
+    }
+
+    @Test
+    void keepsPipelineStructureAndFieldPaths() {
+        String shape = shape("aggregate", "{aggregate: 'products', pipeline: ["
+                + "{$match: {category: 'books'}},"
+                + "{$group: {_id: '$category', total: {$sum: '$price'}}},"
+                + "{$sort: {total: -1}},"
+                + "{$project: {total: 1}},"
+                + "{$limit: 20}], cursor: {batchSize: 101}}");
+
+        assertThat(shape).isEqualTo(json("{aggregate: 'products', pipeline: ["
+                + "{$match: {category: '?'}},"
+                + "{$group: {_id: '$category', total: {$sum: '$price'}}},"
+                + "{$sort: {total: -1}},"
+                + "{$project: {total: 1}},"
+                + "{$limit: '?'}]}"));
+    }
+
+    @Test
+    void leavesOutFieldsThatDoNotDecideThePlan() {
+        String plain = shape("find", "{find: 'products', filter: {category: 'books'}}");
+        String withOptions = shape("find", "{find: 'products', filter: {category: 'books'}, limit: 20, skip: 40,"
+                + " batchSize: 101, lsid: {id: 1}, $db: 'app', readConcern: {level: 'majority'}}");
+
+        assertThat(withOptions).isEqualTo(plain);
+    }
+
+    @Test
+    void bulkWritesShapeOnTheirFirstStatement() {
+        String one = shape("update", "{update: 'products', ordered: false,"
+                + " updates: [{q: {_id: 'p1'}, u: {$inc: {quantity: -1}}}]}");
+        String three = shape("update", "{update: 'products', ordered: false, updates: ["
+                + "{q: {_id: 'p1'}, u: {$inc: {quantity: -1}}},"
+                + "{q: {_id: 'p2'}, u: {$inc: {quantity: -2}}},"
+                + "{q: {_id: 'p3'}, u: {$inc: {quantity: -3}}}]}");
+
+        assertThat(three).isEqualTo(one);
+        assertThat(one).isEqualTo(json("{update: 'products', updates: [{q: {_id: '?'}, u: {$inc: {quantity: '?'}}}]}"));
+    }
+
+    @Test
+    void usesAnEmptyCollectionNameWhenTheCommandHasNone() {
+        assertThat(shape("aggregate", "{aggregate: 1, pipeline: [{$currentOp: {}}]}"))
+                .isEqualTo(json("{aggregate: '', pipeline: [{$currentOp: {}}]}"));
+    }
+
+    private static String shape(String commandName, String command) {
+        BsonDocument document = BsonDocument.parse(command);
+        String collection = document.get(commandName).isString() ? document.getString(commandName).getValue() : "";
+        return SlowQueryMonitor.shapeOf(commandName, collection, document);
+    }
+
+    private static String json(String shape) {
+        return BsonDocument.parse(shape).toJson();
+    }
+}
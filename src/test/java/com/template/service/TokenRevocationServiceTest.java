@@ -0,0 +1,80 @@
+package com.template.service;
+
+import com.template.entity.User;
+import com.template.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TokenRevocationServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private final JwtService jwtService = new JwtService();
+    private final TokenRevocationService revocations =
+            new TokenRevocationService(mock(RevokedTokenRepository.class), mock(MongoTemplate.class));
+    private final User user = User.builder().email(EMAIL).password("x").role(User.Role.USER).build();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", "YourSuperSecretKeyThatIsAtLeast256BitsLongForHS256Algorithm");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(revocations, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(revocations, "expectedInsertions", 1_000L);
+        ReflectionTestUtils.setField(revocations, "falsePositiveRate", 0.001);
+        revocations.init();
+    }
+
+    @Test
+    void revokeAllRevokesTokensIssuedBefore() throws Exception {
+        Claims before = claims();
+        Thread.sleep(2);
+
+        revocations.revokeAllForUser(EMAIL);
+
+        assertThat(revocations.isRevoked(before)).isTrue();
+    }
+
+    @Test
+    void acceptsATokenIssuedInTheSameSecondAfterARevokeAll() throws Exception {
+        // Start early in a second so the revoke and the new token share it
+        while (System.currentTimeMillis() % 1000 > 500) {
+            Thread.sleep(1);
+        }
+        revocations.revokeAllForUser(EMAIL);
+        Thread.sleep(2);
+
+        Claims after = claims();
+
+        assertThat(revocations.isRevoked(after)).isFalse();
+    }
+
+    @Test
+    void revokeAllOnlyAffectsThatUser() throws Exception {
+        Claims other = jwtService.extractAllClaims(jwtService.generateToken(
+                User.builder().email("other@example.com").password("x").role(User.Role.USER).build()));
+        Thread.sleep(2);
+
+        revocations.revokeAllForUser(EMAIL);
+
+        assertThat(revocations.isRevoked(other)).isFalse();
+    }
+
+    @Test
+    void isTokenValidChecksTheSubjectOfParsedClaims() {
+        Claims claims = claims();
+
+        assertThat(jwtService.isTokenValid(claims, user)).isTrue();
+        assertThat(jwtService.isTokenValid(claims,
+                User.builder().email("other@example.com").password("x").build())).isFalse();
+    }
+
+    private Claims claims() {
+        return jwtService.extractAllClaims(jwtService.generateToken(user));
+    }
+}
@@ -0,0 +1,23 @@
+package com.template.support;
+
+import org.testcontainers.DockerClientFactory;
+
+/**
+ * Condition for container tests that guard a build budget: they run whenever
+ * Docker is available and are skipped without it locally, but with
+ * {@code -Dtests.require-docker=true} (the {@code ci} profile) they run
+ * regardless, so a runner without Docker fails the build instead of quietly
+ * skipping the check. Use as
+ * {@code @EnabledIf("com.template.support.DockerRequirement#dockerAvailableOrRequired")}.
+ */
+public final class DockerRequirement {
+
+    public static final String REQUIRE_DOCKER = "tests.require-docker";
+
+    private DockerRequirement() {
+    }
+
+    public static boolean dockerAvailableOrRequired() {
+        return Boolean.getBoolean(REQUIRE_DOCKER) || DockerClientFactory.instance().isDockerAvailable();
+    }
+}
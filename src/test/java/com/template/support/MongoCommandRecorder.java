@@ -0,0 +1,61 @@
+package com.template.support;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Driver {@link CommandListener} that records every command sent to Mongo
+ * while recording is on. Handshake and session housekeeping commands are not
+ * round trips a request causes and are ignored.
+ */
+public class MongoCommandRecorder implements CommandListener {
+
+    private static final Set<String> IGNORED = Set.of(
+            "hello", "isMaster", "ismaster", "ping", "buildInfo", "saslStart", "saslContinue", "endSessions");
+
+    private final List<RecordedCommand> commands = new ArrayList<>();
+    private volatile boolean recording;
+
+    public synchronized void start() {
+        commands.clear();
+        recording = true;
+    }
+
+    public synchronized List<RecordedCommand> stop() {
+        recording = false;
+        return List.copyOf(commands);
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (!recording || IGNORED.contains(event.getCommandName())) {
+            return;
+        }
+        // The event's document is only valid during the callback.
+        RecordedCommand command = new RecordedCommand(
+                event.getCommandName(), event.getDatabaseName(), event.getCommand().clone());
+        synchronized (this) {
+            if (recording) {
+                commands.add(command);
+            }
+        }
+    }
+
+    public record RecordedCommand(String name, String database, BsonDocument command) {
+
+        public String collection() {
+            var value = command.get(name);
+            return value != null && value.isString() ? value.asString().getValue() : "";
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + database + "." + collection();
+        }
+    }
+}